@@ -46,7 +46,7 @@ public class Achievement implements Comparable<Achievement> {
   public Achievement(String id, String name, String info, String text,
       Collection<BattleStatisticsRequirement> battleRequirements, CounterMap<Id> killsByLocationId,
       CounterMap<Id> visitedLocations, CounterMap<Id> maximumNumberOfVisits) {
-    this.id = new Id(id);
+    this.id = Id.valueOf(id);
     this.name = name;
     this.info = info;
     this.text = text;
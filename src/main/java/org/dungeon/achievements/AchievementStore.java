@@ -61,7 +61,7 @@ public class AchievementStore {
           BattleStatisticsQuery query = new BattleStatisticsQuery();
           JsonValue idValue = queryObject.get("id");
           if (idValue != null) {
-            query.setId(new Id(idValue.asString()));
+            query.setId(Id.valueOf(idValue.asString()));
           }
           JsonValue typeValue = queryObject.get("type");
           if (typeValue != null) {
@@ -71,7 +71,7 @@ public class AchievementStore {
           if (causeOfDeathValue != null) {
             JsonObject causeOfDeathObject = causeOfDeathValue.asObject();
             TypeOfCauseOfDeath type = TypeOfCauseOfDeath.valueOf(causeOfDeathObject.get("type").asString());
-            Id id = new Id(causeOfDeathObject.get("id").asString());
+            Id id = Id.valueOf(causeOfDeathObject.get("id").asString());
             query.setCauseOfDeath(new CauseOfDeath(type, id));
           }
           JsonValue partOfDayValue = queryObject.get("partOfDay");
@@ -107,7 +107,7 @@ public class AchievementStore {
   private static CounterMap<Id> idCounterMapFromJsonObject(JsonObject jsonObject) {
     CounterMap<Id> counterMap = new CounterMap<Id>();
     for (Member member : jsonObject) {
-      counterMap.incrementCounter(new Id(member.getName()), member.getValue().asInt());
+      counterMap.incrementCounter(Id.valueOf(member.getName()), member.getValue().asInt());
     }
     return counterMap;
   }
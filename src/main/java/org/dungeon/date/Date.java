@@ -116,6 +116,13 @@ public class Date implements Comparable<Date>, Serializable {
     time = YEAR.milliseconds * (year - 1) + MONTH.milliseconds * (month - 1) + DAY.milliseconds * (day - 1);
   }
 
+  /**
+   * Returns the Date of the specified time, as returned by getTime.
+   */
+  public static Date fromTime(long time) {
+    return new Date(time);
+  }
+
   public long getTime() {
     return time;
   }
@@ -40,6 +40,9 @@ import org.dungeon.game.Location;
 import org.dungeon.game.LocationPreset;
 import org.dungeon.game.PartOfDay;
 import org.dungeon.game.Point;
+import org.dungeon.game.SpatialIndex;
+import org.dungeon.io.IOUtils;
+import org.dungeon.io.Loader;
 import org.dungeon.io.Writer;
 import org.dungeon.map.WorldMap;
 import org.dungeon.map.WorldMapWriter;
@@ -53,6 +56,7 @@ import org.dungeon.util.Utils;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -100,6 +104,18 @@ public class DebugTools {
         printNotYetUnlockedAchievements();
       }
     });
+    commands.add(new Command("compact") {
+      @Override
+      public void execute(@NotNull IssuedCommand issuedCommand) {
+        compact();
+      }
+    });
+    commands.add(new Command("compression") {
+      @Override
+      public void execute(@NotNull IssuedCommand issuedCommand) {
+        Loader.writeCompressionBenchmark(issuedCommand.getTokenCount() >= 3 ? issuedCommand.getArguments()[1] : null);
+      }
+    });
     commands.add(new Command("exploration") {
       @Override
       public void execute(@NotNull IssuedCommand issuedCommand) {
@@ -124,6 +140,16 @@ public class DebugTools {
         WorldMapWriter.writeMap(WorldMap.makeDebugWorldMap());
       }
     });
+    commands.add(new Command("nearest") {
+      @Override
+      public void execute(@NotNull IssuedCommand issuedCommand) {
+        if (issuedCommand.getTokenCount() >= 3) {
+          printNearest(Id.valueOf(issuedCommand.getArguments()[1].toUpperCase()));
+        } else {
+          Messenger.printMissingArgumentsMessage();
+        }
+      }
+    });
     commands.add(new Command("list") {
       @Override
       public void execute(@NotNull IssuedCommand issuedCommand) {
@@ -248,6 +274,30 @@ public class DebugTools {
     Writer.writeString(sb.toString());
   }
 
+  /**
+   * Prints the nearest seen and the nearest generated Location with the specified Id.
+   */
+  private static void printNearest(Id locationId) {
+    GameState gameState = Game.getGameState();
+    Point heroPosition = gameState.getHeroPosition();
+    SpatialIndex seenIndex = gameState.getStatistics().getExplorationStatistics().getSeenLocationIndex();
+    SpatialIndex generatedIndex = gameState.getWorld().getLocationIndex();
+    Table table = new Table("Index", "Count", "Nearest", "Distance");
+    insertNearestRow(table, "Seen", seenIndex, locationId, heroPosition);
+    insertNearestRow(table, "Generated", generatedIndex, locationId, heroPosition);
+    table.print();
+  }
+
+  private static void insertNearestRow(Table table, String name, SpatialIndex index, Id id, Point origin) {
+    Point nearest = index.findNearest(id, origin);
+    if (nearest == null) {
+      table.insertRow(name, "0", "-", "-");
+    } else {
+      String distance = String.valueOf(SpatialIndex.distance(origin, nearest));
+      table.insertRow(name, String.valueOf(index.count(id)), nearest.toString(), distance);
+    }
+  }
+
   /**
    * Attempts to give an Item to the Hero.
    *
@@ -255,7 +305,7 @@ public class DebugTools {
    */
   private static void give(String itemId) {
     Date date = Game.getGameState().getWorld().getWorldDate();
-    Item item = ItemFactory.makeItem(new Id(itemId.toUpperCase()), date);
+    Item item = ItemFactory.makeItem(Id.valueOf(itemId.toUpperCase()), date);
     if (item != null) {
       Writer.writeString("Item successfully created.");
       if (Game.getGameState().getHero().getInventory().simulateItemAddition(item) == SimulationResult.SUCCESSFUL) {
@@ -285,7 +335,7 @@ public class DebugTools {
   private static void spawn(IssuedCommand issuedCommand) {
     if (issuedCommand.getTokenCount() >= 3) {
       for (int i = 1; i < issuedCommand.getArguments().length; i++) {
-        Id givenId = new Id(issuedCommand.getArguments()[i].toUpperCase());
+        Id givenId = Id.valueOf(issuedCommand.getArguments()[i].toUpperCase());
         Creature clone = CreatureFactory.makeCreature(givenId);
         if (clone != null) {
           Game.getGameState().getHeroLocation().addCreature(clone);
@@ -300,6 +350,34 @@ public class DebugTools {
     }
   }
 
+  /**
+   * Compacts the World and writes how much memory and how many save bytes were reclaimed.
+   */
+  private static void compact() {
+    GameState gameState = Game.getGameState();
+    try {
+      long sizeBefore = Loader.getSerializedSize(gameState);
+      long memoryBefore = getUsedMemory();
+      int removedItems = gameState.compact();
+      long memoryAfter = getUsedMemory();
+      long sizeAfter = Loader.getSerializedSize(gameState);
+      Writer.writeString("Removed " + removedItems + " items from the ground.");
+      Writer.writeString("Memory: " + IOUtils.bytesToHuman(memoryBefore) + " -> " + IOUtils.bytesToHuman(memoryAfter));
+      Writer.writeString("Save: " + IOUtils.bytesToHuman(sizeBefore) + " -> " + IOUtils.bytesToHuman(sizeAfter));
+    } catch (IOException exception) {
+      Writer.writeString("Could not measure the size of the save.");
+    }
+  }
+
+  /**
+   * Returns the amount of memory used by the heap after a garbage collection is requested.
+   */
+  private static long getUsedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
   private static void printIsSaved() {
     if (Game.getGameState().isSaved()) {
       Writer.writeString("The game is saved.");
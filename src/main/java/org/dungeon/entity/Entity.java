@@ -29,39 +29,36 @@ import java.io.Serializable;
  */
 public abstract class Entity implements Selectable, Serializable {
 
-  private final Id id;
-  private final String type;
-  private final Name name;
-  private final Weight weight;
-  private final Visibility visibility;
+  // Shared by all the Entities made from the same preset. Presets must never be modified after Entities are made.
+  private final Preset preset;
 
   protected Entity(Preset preset) {
-    this.id = preset.getId();
-    this.type = preset.getType();
-    this.name = preset.getName();
-    this.weight = preset.getWeight();
-    this.visibility = preset.getVisibility();
+    this.preset = preset;
+  }
+
+  protected Preset getPreset() {
+    return preset;
   }
 
   public Id getId() {
-    return id;
+    return preset.getId();
   }
 
   public String getType() {
-    return type;
+    return preset.getType();
   }
 
   @Override
   public Name getName() {
-    return name;
+    return preset.getName();
   }
 
   protected Weight getWeight() {
-    return weight;
+    return preset.getWeight();
   }
 
   public Visibility getVisibility() {
-    return visibility;
+    return preset.getVisibility();
   }
 
   public abstract Luminosity getLuminosity();
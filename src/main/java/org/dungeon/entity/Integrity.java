@@ -65,6 +65,18 @@ public class Integrity implements Serializable {
     return current;
   }
 
+  /**
+   * Sets the current integrity.
+   *
+   * @param current the current integrity, nonnegative, smaller than or equal to the maximum
+   */
+  public void setCurrent(int current) {
+    if (current < 0 || current > maximum) {
+      throw new IllegalArgumentException("current should be between zero and maximum.");
+    }
+    this.current = current;
+  }
+
   public boolean isMaximum() {
     return getCurrent() == getMaximum();
   }
@@ -74,7 +86,14 @@ public class Integrity implements Serializable {
   }
 
   public Percentage toPercentage() {
-    return new Percentage(getCurrent() / (double) getMaximum());
+    return new Percentage(toDouble());
+  }
+
+  /**
+   * Returns the ratio of the current integrity to the maximum integrity, a double between 0 and 1.
+   */
+  public double toDouble() {
+    return getCurrent() / (double) getMaximum();
   }
 
   /**
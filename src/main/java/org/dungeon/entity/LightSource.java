@@ -45,6 +45,10 @@ public class LightSource implements Serializable {
     this.enabled = false;
   }
 
+  public boolean isEnabled() {
+    return enabled;
+  }
+
   public Luminosity getLuminosity() {
     if (enabled) {
       return luminosity;
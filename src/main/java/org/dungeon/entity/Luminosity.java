@@ -27,7 +27,7 @@ import java.util.Collection;
  */
 public class Luminosity implements Serializable {
 
-  public static final Luminosity ZERO = new Luminosity(new Percentage(0.0));
+  public static final Luminosity ZERO = new Luminosity(Percentage.ZERO);
 
   private final Percentage value;
 
@@ -36,17 +36,28 @@ public class Luminosity implements Serializable {
   }
 
   public static Luminosity resultantLuminosity(Collection<Entity> entities) {
+    return new Luminosity(new Percentage(Math.min(sum(entities), 1.0)));
+  }
+
+  /**
+   * Returns the sum of the luminosities of the specified Entities, which may be bigger than 1.
+   */
+  public static double sum(Collection<? extends Entity> entities) {
     double total = 0;
     for (Entity entity : entities) {
-      total += entity.getLuminosity().toPercentage().toDouble();
+      total += entity.getLuminosity().toDouble();
     }
-    return new Luminosity(new Percentage(Math.min(total, 1.0)));
+    return total;
   }
 
   public Percentage toPercentage() {
     return value;
   }
 
+  public double toDouble() {
+    return value.toDouble();
+  }
+
   @Override
   public String toString() {
     return "Luminosity of " + value;
@@ -41,7 +41,7 @@ public class Visibility implements Serializable {
    * @return true if an Entity with this Visibility is visible, false otherwise
    */
   public boolean visibleUnder(Luminosity luminosity) {
-    return Double.compare(luminosity.toPercentage().toDouble(), 1 - value.toDouble()) >= 0;
+    return Double.compare(luminosity.toDouble(), 1 - value.toDouble()) >= 0;
   }
 
   public Percentage toPercentage() {
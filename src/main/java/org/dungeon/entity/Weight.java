@@ -73,6 +73,10 @@ public class Weight implements Comparable<Weight>, Serializable {
     return newInstance(this.value * p.toDouble());
   }
 
+  public double toDouble() {
+    return value;
+  }
+
   @Override
   public int compareTo(@NotNull Weight weight) {
     return Double.compare(value, weight.value);
@@ -18,7 +18,6 @@
 package org.dungeon.entity.creatures;
 
 import org.dungeon.util.DungeonMath;
-import org.dungeon.util.Percentage;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -36,15 +35,15 @@ class BatAttackAlgorithm extends SimpleAttackAlgorithm {
   private static final double BAT_MIN_CRITICAL_CHANCE = 0.0;
 
   @Override
-  Percentage getHitRate(@NotNull Creature creature) {
-    Percentage luminosity = creature.getLocation().getLuminosity().toPercentage();
-    return new Percentage(DungeonMath.weightedAverage(BAT_MAX_HIT_RATE, BAT_MIN_HIT_RATE, luminosity));
+  double getHitRate(@NotNull Creature creature) {
+    double luminosity = creature.getLocation().getLuminosity().toDouble();
+    return DungeonMath.weightedAverage(BAT_MAX_HIT_RATE, BAT_MIN_HIT_RATE, luminosity);
   }
 
   @Override
-  Percentage getCriticalChance(@NotNull Creature creature) {
-    Percentage luminosity = creature.getLocation().getLuminosity().toPercentage();
-    return new Percentage(DungeonMath.weightedAverage(BAT_MAX_CRITICAL_CHANCE, BAT_MIN_CRITICAL_CHANCE, luminosity));
+  double getCriticalChance(@NotNull Creature creature) {
+    double luminosity = creature.getLocation().getLuminosity().toDouble();
+    return DungeonMath.weightedAverage(BAT_MAX_CRITICAL_CHANCE, BAT_MIN_CRITICAL_CHANCE, luminosity);
   }
 
 }
@@ -20,15 +20,20 @@ package org.dungeon.entity.creatures;
 import org.dungeon.entity.Entity;
 import org.dungeon.entity.LightSource;
 import org.dungeon.entity.Luminosity;
-import org.dungeon.entity.TagSet;
 import org.dungeon.entity.items.CreatureInventory;
+import org.dungeon.entity.items.CreatureInventory.SimulationResult;
 import org.dungeon.entity.items.Item;
+import org.dungeon.game.Id;
 import org.dungeon.game.Location;
+import org.dungeon.io.ChunkInput;
+import org.dungeon.io.ChunkOutput;
 import org.dungeon.io.DungeonLogger;
 import org.dungeon.stats.CauseOfDeath;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,15 +41,13 @@ import java.util.List;
  */
 public class Creature extends Entity {
 
-  private final int attack;
-  private final AttackAlgorithmId attackAlgorithmId;
-  private final TagSet<Tag> tagSet;
   private final CreatureInventory inventory;
   private final LightSource lightSource;
   private final CreatureHealth health;
   private final Dropper dropper;
   private Item weapon;
-  private Location location;
+  // Locations are saved apart from the Hero, so this is set again when the Creature is added to its Location.
+  private transient Location location;
   /**
    * What caused the death of this creature. If getHealth().isAlive() evaluates to true, this should be null.
    */
@@ -53,16 +56,17 @@ public class Creature extends Entity {
   public Creature(CreaturePreset preset) {
     super(preset);
     health = CreatureHealth.makeCreatureIntegrity(preset.getHealth(), this);
-    attack = preset.getAttack();
-    tagSet = TagSet.copyTagSet(preset.getTagSet());
-    attackAlgorithmId = preset.getAttackAlgorithmId();
     inventory = new CreatureInventory(this, preset.getInventoryItemLimit(), preset.getInventoryWeightLimit());
     lightSource = new LightSource(preset.getLuminosity());
-    dropper = new Dropper(this, preset.getDropList());
+    dropper = new Dropper(this);
+  }
+
+  CreaturePreset getCreaturePreset() {
+    return (CreaturePreset) getPreset();
   }
 
   public boolean hasTag(Tag tag) {
-    return tagSet.hasTag(tag);
+    return getCreaturePreset().hasTag(tag);
   }
 
   public CreatureHealth getHealth() {
@@ -74,7 +78,7 @@ public class Creature extends Entity {
   }
 
   public int getAttack() {
-    return attack;
+    return getCreaturePreset().getAttack();
   }
 
   public CreatureInventory getInventory() {
@@ -156,7 +160,7 @@ public class Creature extends Entity {
   }
 
   public AttackAlgorithmId getAttackAlgorithmId() {
-    return attackAlgorithmId;
+    return getCreaturePreset().getAttackAlgorithmId();
   }
 
   /**
@@ -191,6 +195,58 @@ public class Creature extends Entity {
     return getDropper().getDroppedItemsList();
   }
 
+  /**
+   * Writes the Id of the preset of this Creature and the state that may differ from the preset. Dead Creatures are not
+   * in Locations, so what only matters after death is not written.
+   */
+  public void writeTo(ChunkOutput out) {
+    out.writeId(getId());
+    out.writeVarInt(health.getCurrent());
+    out.writeBoolean(lightSource.isEnabled());
+    List<Item> items = inventory.getItems();
+    out.writeVarInt(items.size());
+    for (Item item : items) {
+      item.writeTo(out);
+    }
+    out.writeVarInt(weapon == null ? 0 : items.indexOf(weapon) + 1);
+  }
+
+  /**
+   * Reads a Creature written by writeTo.
+   *
+   * @return a Creature that is in no Location or null if its preset no longer exists
+   */
+  public static Creature readFrom(ChunkInput in) throws IOException {
+    Id id = in.readId();
+    int health = in.readVarInt();
+    boolean lightSourceEnabled = in.readBoolean();
+    int itemCount = in.readVarInt();
+    List<Item> items = new ArrayList<Item>(itemCount);
+    for (int i = 0; i < itemCount; i++) {
+      items.add(Item.readFrom(in));
+    }
+    int weaponIndex = in.readVarInt();
+    CreaturePreset preset = CreatureFactory.getCreaturePreset(id);
+    if (preset == null) {
+      DungeonLogger.warning("Creature preset not found: " + id + ".");
+      return null;
+    }
+    Creature creature = new Creature(preset);
+    creature.health.setCurrent(health);
+    if (!lightSourceEnabled) {
+      creature.lightSource.disable();
+    }
+    for (Item item : items) {
+      if (item != null && creature.inventory.simulateItemAddition(item) == SimulationResult.SUCCESSFUL) {
+        creature.inventory.addItem(item);
+      }
+    }
+    if (weaponIndex > 0 && weaponIndex <= itemCount && creature.inventory.hasItem(items.get(weaponIndex - 1))) {
+      creature.setWeapon(items.get(weaponIndex - 1));
+    }
+    return creature;
+  }
+
   @Override
   public String toString() {
     return getName().getSingular();
@@ -28,6 +28,7 @@ import org.dungeon.entity.items.ItemFactory;
 import org.dungeon.entity.items.ItemPreset;
 import org.dungeon.game.Game;
 import org.dungeon.game.Id;
+import org.dungeon.game.IdTable;
 import org.dungeon.game.NameFactory;
 import org.dungeon.io.DungeonLogger;
 import org.dungeon.io.JsonObjectFactory;
@@ -41,9 +42,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The factory of creatures.
@@ -53,7 +52,8 @@ public final class CreatureFactory {
   private static final int DEFAULT_INVENTORY_ITEM_LIMIT = 100;
   private static final double DEFAULT_INVENTORY_WEIGHT_LIMIT = 100.0;
 
-  private static Map<Id, CreaturePreset> creaturePresetMap;
+  private static final Id HERO_ID = Id.valueOf("HERO");
+  private static IdTable<CreaturePreset> creaturePresetMap;
 
   private CreatureFactory() {
     throw new AssertionError();
@@ -63,12 +63,12 @@ public final class CreatureFactory {
    * Loads all creature presets from the resource files. Also makes the item presets used by the corpses.
    */
   public static void loadCreaturePresetsAndMakeCorpsePresets() {
-    Map<Id, CreaturePreset> creaturePresetMap = new HashMap<Id, CreaturePreset>();
+    IdTable<CreaturePreset> creaturePresetMap = new IdTable<CreaturePreset>();
     JsonObject object = JsonObjectFactory.makeJsonObject("creatures.json");
     for (JsonValue value : object.get("creatures").asArray()) {
       JsonObject presetObject = value.asObject();
       CreaturePreset preset = new CreaturePreset();
-      preset.setId(new Id(presetObject.get("id").asString()));
+      preset.setId(Id.valueOf(presetObject.get("id").asString()));
       preset.setType(presetObject.get("type").asString());
       preset.setName(NameFactory.fromJsonObject(presetObject.get("name").asObject()));
       if (presetObject.get("tags") != null) {
@@ -93,7 +93,7 @@ public final class CreatureFactory {
         ItemFactory.addItemPreset(corpse);
       }
     }
-    setCreaturePresetMap(Collections.unmodifiableMap(creaturePresetMap));
+    setCreaturePresetMap(creaturePresetMap);
     DungeonLogger.info("Loaded " + creaturePresetMap.size() + " creature presets.");
   }
 
@@ -134,7 +134,7 @@ public final class CreatureFactory {
     } else {
       List<Id> list = new ArrayList<Id>();
       for (JsonValue value : object.get("inventory").asArray()) {
-        list.add(new Id(value.asString()));
+        list.add(Id.valueOf(value.asString()));
       }
       return list;
     }
@@ -147,7 +147,7 @@ public final class CreatureFactory {
       List<Drop> list = new ArrayList<Drop>();
       for (JsonValue value : object.get("drops").asArray()) {
         JsonArray dropArray = value.asArray();
-        list.add(new Drop(new Id(dropArray.get(0).asString()), new Percentage(dropArray.get(1).asDouble())));
+        list.add(new Drop(Id.valueOf(dropArray.get(0).asString()), new Percentage(dropArray.get(1).asDouble())));
       }
       return list;
     }
@@ -170,11 +170,11 @@ public final class CreatureFactory {
   private static void setWeaponIfPreset(CreaturePreset preset, JsonObject presetObject) {
     String weapon = getStringFromJsonObject(presetObject, "weapon");
     if (weapon != null) {
-      preset.setWeaponId(new Id(weapon));
+      preset.setWeaponId(Id.valueOf(weapon));
     }
   }
 
-  private static void setCreaturePresetMap(Map<Id, CreaturePreset> creaturePresetMap) {
+  private static void setCreaturePresetMap(IdTable<CreaturePreset> creaturePresetMap) {
     if (CreatureFactory.creaturePresetMap == null) {
       CreatureFactory.creaturePresetMap = creaturePresetMap;
     } else {
@@ -182,6 +182,13 @@ public final class CreatureFactory {
     }
   }
 
+  /**
+   * Returns the CreaturePreset with the specified Id or null if there is no such preset.
+   */
+  public static CreaturePreset getCreaturePreset(Id id) {
+    return creaturePresetMap.get(id);
+  }
+
   /**
    * Attempts to create a creature from the CreaturePreset specified by an ID. Returns null if no preset was found.
    *
@@ -206,7 +213,7 @@ public final class CreatureFactory {
    * @return the Hero object
    */
   public static Hero makeHero(Date date) {
-    Hero hero = new Hero(creaturePresetMap.get(new Id("HERO")));
+    Hero hero = new Hero(creaturePresetMap.get(HERO_ID));
     giveItems(hero, date);
     return hero;
   }
@@ -229,7 +236,7 @@ public final class CreatureFactory {
    * @param date the Date when the Items this Creature has were created
    */
   private static void giveItems(Creature creature, Date date) {
-    CreaturePreset preset = creaturePresetMap.get(creature.getId());
+    CreaturePreset preset = creature.getCreaturePreset();
     for (Id itemId : preset.getItems()) {
       Item item = ItemFactory.makeItem(itemId, date);
       SimulationResult result = creature.getInventory().simulateItemAddition(item);
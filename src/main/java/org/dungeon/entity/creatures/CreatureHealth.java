@@ -54,6 +54,13 @@ public class CreatureHealth implements Serializable {
     return integrity.getCurrent();
   }
 
+  /**
+   * Sets the current health of a Creature that is being loaded, without handling death.
+   */
+  void setCurrent(int current) {
+    integrity.setCurrent(Math.min(current, integrity.getMaximum()));
+  }
+
   public boolean isFull() {
     return integrity.isMaximum();
   }
@@ -75,6 +82,10 @@ public class CreatureHealth implements Serializable {
     return integrity.toPercentage();
   }
 
+  public double toDouble() {
+    return integrity.toDouble();
+  }
+
   /**
    * Increments the current health by the specified amount.
    *
@@ -26,12 +26,13 @@ import org.dungeon.game.Id;
 import org.dungeon.game.Name;
 import org.dungeon.io.DungeonLogger;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * CreaturePreset class that stores the information that the CreatureFactory uses to produce creatures.
  */
-public final class CreaturePreset implements Preset {
+public final class CreaturePreset implements Preset, Serializable {
 
   private TagSet<Creature.Tag> tagSet;
   private Id id;
@@ -194,4 +195,29 @@ public final class CreaturePreset implements Preset {
     this.inventoryWeightLimit = inventoryWeightLimit;
   }
 
+  /**
+   * Serializes only the Id of this preset, so that saved Creatures refer to the preset loaded by CreatureFactory.
+   */
+  private Object writeReplace() {
+    return new SerializationProxy(id);
+  }
+
+  private static class SerializationProxy implements Serializable {
+
+    private final Id id;
+
+    SerializationProxy(Id id) {
+      this.id = id;
+    }
+
+    private Object readResolve() {
+      CreaturePreset preset = CreatureFactory.getCreaturePreset(id);
+      if (preset == null) {
+        throw new IllegalStateException("no CreaturePreset with Id " + id + ".");
+      }
+      return preset;
+    }
+
+  }
+
 }
@@ -25,6 +25,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -33,17 +34,18 @@ import java.util.List;
 class Dropper implements Serializable {
 
   private final Creature creature;
-  private final List<Drop> dropList;
-  private final List<Item> droppedItemsList = new ArrayList<Item>();
-  private boolean hasAlreadyCalledDropEverything = false;
+  // Only allocated when the Creature dies, as most Creatures never do.
+  private List<Item> droppedItemsList;
 
-  public Dropper(Creature creature, List<Drop> dropList) {
+  public Dropper(Creature creature) {
     this.creature = creature;
-    this.dropList = dropList;
   }
 
   @NotNull
   List<Item> getDroppedItemsList() {
+    if (droppedItemsList == null) {
+      return Collections.emptyList();
+    }
     return droppedItemsList;
   }
 
@@ -52,8 +54,8 @@ class Dropper implements Serializable {
    * items that must be created.
    */
   public void dropEverything() {
-    if (!hasAlreadyCalledDropEverything) {
-      hasAlreadyCalledDropEverything = true;
+    if (droppedItemsList == null) {
+      droppedItemsList = new ArrayList<Item>();
       dropInventory();
       dropVariableDrops();
     } else {
@@ -64,17 +66,17 @@ class Dropper implements Serializable {
   private void dropInventory() {
     for (Item item : new ArrayList<Item>(creature.getInventory().getItems())) {
       creature.dropItem(item);
-      getDroppedItemsList().add(item);
+      droppedItemsList.add(item);
     }
   }
 
   private void dropVariableDrops() {
-    for (Drop drop : dropList) {
+    for (Drop drop : creature.getCreaturePreset().getDropList()) {
       if (drop.rollForDrop()) {
         Item item = ItemFactory.makeItem(drop.getItemId(), creature.getLocation().getWorld().getWorldDate());
         if (item != null) {
           creature.getLocation().addItem(item);
-          getDroppedItemsList().add(item);
+          droppedItemsList.add(item);
         } else {
           DungeonLogger.warning("Got invalid Id (" + drop.getItemId() + ") from drop law.");
         }
@@ -86,7 +88,6 @@ class Dropper implements Serializable {
   public String toString() {
     return "Dropper{" +
         "creature=" + creature +
-        ", dropList=" + dropList +
         ", droppedItemsList=" + droppedItemsList +
         '}';
   }
@@ -31,6 +31,7 @@ import org.dungeon.entity.items.BookComponent;
 import org.dungeon.entity.items.CreatureInventory.SimulationResult;
 import org.dungeon.entity.items.FoodComponent;
 import org.dungeon.entity.items.Item;
+import org.dungeon.entity.items.LocationInventory;
 import org.dungeon.game.Direction;
 import org.dungeon.game.DungeonStringBuilder;
 import org.dungeon.game.Engine;
@@ -49,6 +50,7 @@ import org.dungeon.spells.Spell;
 import org.dungeon.spells.SpellData;
 import org.dungeon.stats.ExplorationStatistics;
 import org.dungeon.util.Constants;
+import org.dungeon.util.CounterMap;
 import org.dungeon.util.DungeonMath;
 import org.dungeon.util.Matches;
 import org.dungeon.util.Messenger;
@@ -98,17 +100,36 @@ public class Hero extends Creature {
   }
 
   public static void writeCreatureSight(List<Creature> creatures) {
+    DungeonStringBuilder builder = new DungeonStringBuilder();
+    appendCreatureSight(builder, creatures);
+    Writer.write(builder);
+  }
+
+  public static void writeItemSight(List<Item> items) {
+    if (!items.isEmpty()) {
+      CounterMap<Name> itemNames = new CounterMap<Name>();
+      for (Item item : items) {
+        itemNames.incrementCounter(item.getName());
+      }
+      DungeonStringBuilder builder = new DungeonStringBuilder();
+      appendItemSight(builder, itemNames);
+      Writer.write(builder);
+    }
+  }
+
+  private static void appendCreatureSight(DungeonStringBuilder builder, List<Creature> creatures) {
+    builder.setColor(Constants.FORE_COLOR_NORMAL);
     if (creatures.isEmpty()) {
-      Writer.writeString("You don't see anyone here.");
+      builder.append("You don't see anyone here.\n");
     } else {
-      Writer.writeString("Here you can see " + Utils.enumerateEntities(creatures) + ".");
+      builder.append("Here you can see " + Utils.enumerateEntities(creatures) + ".\n");
     }
   }
 
-  public static void writeItemSight(List<Item> items) {
-    if (!items.isEmpty()) {
-      Writer.writeNewLine();
-      Writer.writeString("On the ground you see " + Utils.enumerateEntities(items) + ".");
+  private static void appendItemSight(DungeonStringBuilder builder, CounterMap<Name> itemNames) {
+    if (itemNames.isNotEmpty()) {
+      builder.setColor(Constants.FORE_COLOR_NORMAL);
+      builder.append("\nOn the ground you see " + Utils.enumerateNames(itemNames) + ".\n");
     }
   }
 
@@ -197,7 +218,7 @@ public class Hero extends Creature {
    * Returns whether any Item of the current Location is visible to the Hero.
    */
   private boolean canSeeAnItem() {
-    for (Item item : getLocation().getItemList()) {
+    for (Item item : getLocation().getInventory().getDistinctItems()) {
       if (canSee(item)) {
         return true;
       }
@@ -229,28 +250,52 @@ public class Hero extends Creature {
    * @param walkedInFrom the Direction from which the Hero walked in. {@code null} if the Hero did not walk.
    */
   public void look(Direction walkedInFrom) {
+    Writer.write(getView(walkedInFrom));
+  }
+
+  /**
+   * Returns the description of the current Location written by look.
+   *
+   * <p>The description is cached by the Location and only rebuilt after the Location, the light or the part of the day
+   * changes.
+   *
+   * @param walkedInFrom the Direction from which the Hero walked in. {@code null} if the Hero did not walk.
+   */
+  @NotNull
+  DungeonStringBuilder getView(Direction walkedInFrom) {
     Location location = getLocation(); // Avoid multiple calls to the getter.
-    Writer.writeString(walkedInFrom != null ? "You arrive at " : "You are at ", Constants.FORE_COLOR_NORMAL, false);
-    Writer.writeString(location.getName().getSingular(), location.getDescription().getColor(), false);
-    Writer.writeString(".", Constants.FORE_COLOR_NORMAL, false);
-    String description = " " + location.getDescription().getInfo();
-    description += " " + "It is " + location.getWorld().getPartOfDay().toString().toLowerCase() + ".";
-    Writer.writeString(description);
-    lookAdjacentLocations(walkedInFrom);
-    lookCreatures();
-    lookItems();
+    PartOfDay partOfDay = location.getWorld().getPartOfDay();
+    double luminosity = location.getLuminosity().toDouble();
+    LocationViewKey key = new LocationViewKey(walkedInFrom, partOfDay, luminosity);
+    DungeonStringBuilder view = location.getViewCache().get(key, location.getVersion());
+    if (view == null) {
+      view = new DungeonStringBuilder();
+      view.append(walkedInFrom != null ? "You arrive at " : "You are at ");
+      view.setColor(location.getDescription().getColor());
+      view.append(location.getName().getSingular());
+      view.setColor(Constants.FORE_COLOR_NORMAL);
+      view.append(".");
+      view.append(" " + location.getDescription().getInfo());
+      view.append(" " + "It is " + partOfDay.toString().toLowerCase() + ".\n");
+      lookAdjacentLocations(view, walkedInFrom);
+      lookCreatures(view);
+      lookItems(view);
+      location.getViewCache().put(key, location.getVersion(), view);
+    }
+    return view;
   }
 
   /**
    * Looks to the Locations adjacent to the one the Hero is in, informing if the Hero cannot see the adjacent
    * Locations.
    *
+   * @param builder the DungeonStringBuilder the description is appended to
    * @param walkedInFrom the Direction from which the Hero walked in. {@code null} if the Hero did not walk.
    */
-  private void lookAdjacentLocations(Direction walkedInFrom) {
-    Writer.writeNewLine();
+  private void lookAdjacentLocations(DungeonStringBuilder builder, Direction walkedInFrom) {
+    builder.append("\n");
     if (!canSeeAdjacentLocations()) {
-      Writer.writeString("You can't clearly see the surrounding locations.");
+      builder.append("You can't clearly see the surrounding locations.\n");
       return;
     }
     World world = Game.getGameState().getWorld();
@@ -271,31 +316,38 @@ public class Hero extends Creature {
       visibleLocations.get(locationName).add(dir);
     }
     for (Entry<ColoredString, ArrayList<Direction>> entry : visibleLocations.entrySet()) {
-      String text = String.format("To %s you see ", Utils.enumerate(entry.getValue()));
-      Writer.writeString(text, Constants.FORE_COLOR_NORMAL, false);
-      Writer.writeString(String.format("%s", entry.getKey().getString()), entry.getKey().getColor(), false);
-      Writer.writeString(".");
+      builder.append(String.format("To %s you see ", Utils.enumerate(entry.getValue())));
+      builder.setColor(entry.getKey().getColor());
+      builder.append(entry.getKey().getString());
+      builder.setColor(Constants.FORE_COLOR_NORMAL);
+      builder.append(".\n");
     }
   }
 
   /**
-   * Prints a human-readable description of what Creatures the Hero sees.
+   * Appends a human-readable description of what Creatures the Hero sees.
    */
-  private void lookCreatures() {
+  private void lookCreatures(DungeonStringBuilder builder) {
     List<Creature> creatures = new ArrayList<Creature>(getLocation().getCreatures());
     creatures.remove(this);
     creatures = filterByVisibility(creatures);
-    Writer.writeNewLine();
-    writeCreatureSight(creatures);
+    builder.append("\n");
+    appendCreatureSight(builder, creatures);
   }
 
   /**
-   * Prints a human-readable description of what the Hero sees on the ground.
+   * Appends a human-readable description of what the Hero sees on the ground. Stacks are counted without being
+   * expanded.
    */
-  private void lookItems() {
-    List<Item> items = getLocation().getItemList();
-    items = filterByVisibility(items);
-    writeItemSight(items);
+  private void lookItems(DungeonStringBuilder builder) {
+    LocationInventory inventory = getLocation().getInventory();
+    CounterMap<Name> itemNames = new CounterMap<Name>();
+    for (Item item : inventory.getDistinctItems()) {
+      if (canSee(item)) {
+        itemNames.incrementCounter(item.getName(), inventory.getStackSize(item));
+      }
+    }
+    appendItemSight(builder, itemNames);
   }
 
   private Item selectInventoryItem(IssuedCommand issuedCommand) {
@@ -314,7 +366,7 @@ public class Hero extends Creature {
    * @return an Item or {@code null}
    */
   private Item selectLocationItem(IssuedCommand issuedCommand) {
-    if (filterByVisibility(getLocation().getItemList()).isEmpty()) {
+    if (!canSeeAnItem()) {
       Writer.writeString("You don't see any items here.");
       return null;
     } else {
@@ -333,9 +385,9 @@ public class Hero extends Creature {
   private Item selectItem(IssuedCommand issuedCommand, BaseInventory inventory, boolean checkForVisibility) {
     List<Item> visibleItems;
     if (checkForVisibility) {
-      visibleItems = filterByVisibility(inventory.getItems());
+      visibleItems = filterByVisibility(inventory.getDistinctItems());
     } else {
-      visibleItems = inventory.getItems();
+      visibleItems = inventory.getDistinctItems();
     }
     if (issuedCommand.hasArguments() || HeroUtils.checkIfAllEntitiesHaveTheSameName(visibleItems)) {
       return HeroUtils.findItem(visibleItems, issuedCommand.getArguments());
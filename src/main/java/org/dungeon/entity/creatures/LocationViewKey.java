@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.entity.creatures;
+
+import org.dungeon.game.Direction;
+import org.dungeon.game.PartOfDay;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The key of a cached view of a Location: everything a look depends on besides the contents of the Location.
+ */
+final class LocationViewKey {
+
+  private final Direction walkedInFrom;
+  private final PartOfDay partOfDay;
+  private final double luminosity;
+
+  public LocationViewKey(@Nullable Direction walkedInFrom, @NotNull PartOfDay partOfDay, double luminosity) {
+    this.walkedInFrom = walkedInFrom;
+    this.partOfDay = partOfDay;
+    this.luminosity = luminosity;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    LocationViewKey that = (LocationViewKey) o;
+    return Double.compare(that.luminosity, luminosity) == 0 && walkedInFrom == that.walkedInFrom &&
+        partOfDay == that.partOfDay;
+  }
+
+  @Override
+  public int hashCode() {
+    long bits = Double.doubleToLongBits(luminosity);
+    int result = walkedInFrom != null ? walkedInFrom.hashCode() : 0;
+    result = 31 * result + partOfDay.hashCode();
+    result = 31 * result + (int) (bits ^ (bits >>> 32));
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "LocationViewKey{" +
+        "walkedInFrom=" + walkedInFrom +
+        ", partOfDay=" + partOfDay +
+        ", luminosity=" + luminosity +
+        '}';
+  }
+
+}
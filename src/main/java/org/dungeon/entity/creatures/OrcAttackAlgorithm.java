@@ -18,7 +18,6 @@
 package org.dungeon.entity.creatures;
 
 import org.dungeon.util.DungeonMath;
-import org.dungeon.util.Percentage;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -33,9 +32,9 @@ class OrcAttackAlgorithm extends SimpleAttackAlgorithm {
   private static final double MAX_CRITICAL_CHANCE = 0.5;
 
   @Override
-  Percentage getCriticalChance(@NotNull Creature creature) {
-    Percentage healthiness = creature.getHealth().toPercentage();
-    return new Percentage(DungeonMath.weightedAverage(MAX_CRITICAL_CHANCE, MIN_CRITICAL_CHANCE, healthiness));
+  double getCriticalChance(@NotNull Creature creature) {
+    double healthiness = creature.getHealth().toDouble();
+    return DungeonMath.weightedAverage(MAX_CRITICAL_CHANCE, MIN_CRITICAL_CHANCE, healthiness);
   }
 
 }
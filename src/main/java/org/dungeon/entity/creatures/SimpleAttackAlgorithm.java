@@ -21,7 +21,6 @@ import org.dungeon.entity.items.Item;
 import org.dungeon.game.Random;
 import org.dungeon.stats.CauseOfDeath;
 import org.dungeon.stats.TypeOfCauseOfDeath;
-import org.dungeon.util.Percentage;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -34,8 +33,8 @@ import org.jetbrains.annotations.NotNull;
  */
 class SimpleAttackAlgorithm implements AttackAlgorithm {
 
-  private static final Percentage DEFAULT_UNARMED_HIT_RATE = new Percentage(0.9);
-  private static final Percentage DEFAULT_CRITICAL_CHANCE = new Percentage(0.1);
+  private static final double DEFAULT_UNARMED_HIT_RATE = 0.9;
+  private static final double DEFAULT_CRITICAL_CHANCE = 0.1;
 
   private static boolean isEquippingUnbrokenWeapon(@NotNull Creature attacker) {
     return attacker.hasWeapon() && !attacker.getWeapon().isBroken();
@@ -45,9 +44,9 @@ class SimpleAttackAlgorithm implements AttackAlgorithm {
    * Retrieves the hit rate of a creature. The implementation provided by SimpleAttackAlgorithm uses a default hit rate
    * if the creature is not equipping an unbroken weapon. Otherwise the hit rate of the weapon is used.
    */
-  Percentage getHitRate(@NotNull Creature creature) {
+  double getHitRate(@NotNull Creature creature) {
     if (isEquippingUnbrokenWeapon(creature)) {
-      return creature.getWeapon().getWeaponComponent().getHitRate();
+      return creature.getWeapon().getWeaponComponent().getHitRate().toDouble();
     } else {
       return DEFAULT_UNARMED_HIT_RATE;
     }
@@ -57,7 +56,7 @@ class SimpleAttackAlgorithm implements AttackAlgorithm {
    * Retrieves the critical chance of a creature. The implementation provided by SimpleAttackAlgorithm just uses a 10%
    * default critical chance.
    */
-  Percentage getCriticalChance(@NotNull Creature creature) {
+  double getCriticalChance(@NotNull Creature creature) {
     return DEFAULT_CRITICAL_CHANCE;
   }
 
@@ -17,26 +17,106 @@
 
 package org.dungeon.entity.items;
 
-import org.dungeon.entity.items.Item.Tag;
+import org.dungeon.game.Game;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The abstract BaseInventory class all inventories inherit from.
+ *
+ * <p>Besides the list of Items, inventories keep the decomposition time of each Item in a parallel primitive array, so
+ * that refreshing an inventory is a linear scan over longs instead of a walk over the Items.
  */
 public abstract class BaseInventory implements Serializable {
 
-  final List<Item> items;
+  private static final int INITIAL_CAPACITY = 4;
+
+  final ArrayList<Item> items;
+  // decompositionTimes[i] is the decomposition time of items.get(i). Only the first items.size() elements are used.
+  private long[] decompositionTimes;
+  // An identity index of the Items, rebuilt from the list when needed after the inventory is loaded.
+  private transient Set<Item> itemSet;
 
   BaseInventory() {
     items = new ArrayList<Item>();
+    decompositionTimes = new long[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Appends an Item to the list of Items. Subclasses must add Items through this method.
+   */
+  void insert(Item item) {
+    int size = items.size();
+    if (size == decompositionTimes.length) {
+      decompositionTimes = Arrays.copyOf(decompositionTimes, 2 * size);
+    }
+    decompositionTimes[size] = item.getDecompositionTime();
+    items.add(item);
+    getItemSet().add(item);
+  }
+
+  /**
+   * Removes an Item from the list of Items. Subclasses must remove Items through this method.
+   *
+   * @return true if the Item was in this inventory
+   */
+  boolean delete(Item item) {
+    if (!getItemSet().remove(item)) {
+      return false;
+    }
+    int index = items.indexOf(item);
+    items.remove(index);
+    System.arraycopy(decompositionTimes, index + 1, decompositionTimes, index, items.size() - index);
+    return true;
+  }
+
+  /**
+   * Puts an Item that is not in this inventory in the place of an Item that is.
+   */
+  void replace(Item oldItem, Item newItem) {
+    int index = items.indexOf(oldItem);
+    items.set(index, newItem);
+    decompositionTimes[index] = newItem.getDecompositionTime();
+    getItemSet().remove(oldItem);
+    getItemSet().add(newItem);
+  }
+
+  private Set<Item> getItemSet() {
+    if (itemSet == null) {
+      itemSet = Collections.newSetFromMap(new IdentityHashMap<Item, Boolean>());
+      itemSet.addAll(items);
+    }
+    return itemSet;
+  }
+
+  /**
+   * Trims the storage of this inventory to the number of Items it has. Called when the World is compacted.
+   */
+  public void compact() {
+    items.trimToSize();
+    decompositionTimes = Arrays.copyOf(decompositionTimes, Math.max(INITIAL_CAPACITY, items.size()));
+  }
+
+  /**
+   * Notifies this inventory that the weight of one of its Items changed.
+   *
+   * @param oldWeight the weight of the Item before the change, in kilograms
+   * @param newWeight the weight of the Item after the change, in kilograms
+   */
+  void updateItemWeight(double oldWeight, double newWeight) {
   }
 
-  private static boolean isDecomposed(Item item) {
-    return (item.hasTag(Tag.DECOMPOSES) && item.getAge() >= item.getDecompositionPeriod());
+  /**
+   * Ensures that one of the Items of this inventory can be modified without modifying any other unit. Must be called
+   * before the state of an Item changes.
+   */
+  void unstack(Item item) {
   }
 
   /**
@@ -48,6 +128,25 @@ public abstract class BaseInventory implements Serializable {
     return Collections.unmodifiableList(items);
   }
 
+  /**
+   * Returns an unmodifiable view of the list of the distinct Items. A stack of identical Items appears only once, while
+   * it appears once per unit in getItems().
+   *
+   * @return an unmodifiable view of the list of the distinct Items
+   */
+  public List<Item> getDistinctItems() {
+    return Collections.unmodifiableList(items);
+  }
+
+  /**
+   * Returns how many units the specified Item stands for in this inventory.
+   *
+   * @return a nonnegative integer
+   */
+  public int getStackSize(Item item) {
+    return hasItem(item) ? 1 : 0;
+  }
+
   /**
    * Convenience method that returns the number of items in the inventory.
    *
@@ -61,7 +160,7 @@ public abstract class BaseInventory implements Serializable {
    * Checks if an item is already in the inventory.
    */
   public boolean hasItem(Item item) {
-    return items.contains(item);
+    return getItemSet().contains(item);
   }
 
   /**
@@ -75,11 +174,20 @@ public abstract class BaseInventory implements Serializable {
    * Iterates through the inventory, removing items that shouldn't exist anymore.
    */
   public void refreshItems() {
-    for (Item item : new ArrayList<Item>(items)) {
-      if (isDecomposed(item)) {
-        removeItem(item);
+    long worldTime = Game.getGameState().getWorld().getWorldDate().getTime();
+    // Iterate backwards so that removals do not shift the elements that are yet to be checked.
+    for (int i = items.size() - 1; i >= 0; i--) {
+      if (decompositionTimes[i] <= worldTime) {
+        removeDecomposedItem(items.get(i));
       }
     }
   }
 
+  /**
+   * Removes an Item that decomposed. All the units the Item stands for decompose at the same time.
+   */
+  void removeDecomposedItem(Item item) {
+    removeItem(item);
+  }
+
 }
@@ -44,6 +44,10 @@ public class ClockComponent implements Serializable {
     this.lastTime = lastTime;
   }
 
+  Date getLastTime() {
+    return lastTime;
+  }
+
   /**
    * Returns a string that represents a clock reading.
    */
@@ -29,6 +29,8 @@ public class CreatureInventory extends BaseInventory implements LimitedInventory
   private final Creature owner;
   private final int itemLimit;
   private final Weight weightLimit;
+  // The sum of the weights of all Items, in kilograms. Updated on every change instead of being recomputed.
+  private double weight;
 
   public CreatureInventory(Creature owner, int itemLimit, double weightLimit) {
     this.owner = owner;
@@ -47,11 +49,12 @@ public class CreatureInventory extends BaseInventory implements LimitedInventory
   }
 
   public Weight getWeight() {
-    Weight sum = Weight.ZERO;
-    for (Item item : getItems()) {
-      sum = sum.add(item.getWeight());
-    }
-    return sum;
+    return Weight.newInstance(weight);
+  }
+
+  @Override
+  void updateItemWeight(double oldWeight, double newWeight) {
+    weight = Math.max(0, weight + newWeight - oldWeight);
   }
 
   /**
@@ -61,7 +64,8 @@ public class CreatureInventory extends BaseInventory implements LimitedInventory
    */
   public void addItem(Item item) {
     if (simulateItemAddition(item) == SimulationResult.SUCCESSFUL) {
-      items.add(item);
+      insert(item);
+      weight += item.getWeightInKilograms();
       item.setInventory(this);
       String format = "Added %s to the inventory of %s.";
       DungeonLogger.fine(String.format(format, item.getQualifiedName(), owner));
@@ -95,7 +99,7 @@ public class CreatureInventory extends BaseInventory implements LimitedInventory
   }
 
   private boolean willExceedWeightLimitAfterAdding(Item item) {
-    return getWeight().add(item.getWeight()).compareTo(getWeightLimit()) > 0;
+    return weight + item.getWeightInKilograms() > getWeightLimit().toDouble();
   }
 
   /**
@@ -107,7 +111,13 @@ public class CreatureInventory extends BaseInventory implements LimitedInventory
     if (owner.getWeapon() == item) {
       owner.unsetWeapon();
     }
-    items.remove(item);
+    if (delete(item)) {
+      if (items.isEmpty()) {
+        weight = 0; // Discard any accumulated rounding error.
+      } else {
+        weight = Math.max(0, weight - item.getWeightInKilograms());
+      }
+    }
     item.setInventory(null);
     String format = "Removed %s from the inventory of %s.";
     DungeonLogger.fine(String.format(format, item.getQualifiedName(), owner));
@@ -17,64 +17,79 @@
 
 package org.dungeon.entity.items;
 
+import static org.dungeon.date.DungeonTimeUnit.SECOND;
+
 import org.dungeon.date.Date;
 import org.dungeon.date.Period;
 import org.dungeon.entity.Entity;
-import org.dungeon.entity.LightSource;
 import org.dungeon.entity.Luminosity;
-import org.dungeon.entity.TagSet;
 import org.dungeon.entity.Weight;
 import org.dungeon.game.Game;
-import org.dungeon.util.Percentage;
+import org.dungeon.game.Id;
+import org.dungeon.io.ChunkInput;
+import org.dungeon.io.ChunkOutput;
+import org.dungeon.io.DungeonLogger;
+
+import java.io.IOException;
 
 public final class Item extends Entity {
 
   private final ItemIntegrity integrity;
   private final Date dateOfCreation;
-  private final long decompositionPeriod;
-  private final TagSet<Tag> tagSet;
-  private final LightSource lightSource;
-  private WeaponComponent weaponComponent;
-  private FoodComponent foodComponent;
   private ClockComponent clockComponent;
-  private BookComponent bookComponent;
   /* The Inventory this Item is in. Should be null whenever this Item is not in an Inventory. */
   private BaseInventory inventory;
 
   public Item(ItemPreset preset, Date date) {
     super(preset);
-
-    tagSet = TagSet.copyTagSet(preset.getTagSet());
     dateOfCreation = date;
-
-    decompositionPeriod = preset.getPutrefactionPeriod();
-
     integrity = ItemIntegrity.makeItemIntegrity(preset.getIntegrity(), this);
-
-    lightSource = new LightSource(preset.getLuminosity());
-
-    if (hasTag(Tag.WEAPON)) {
-      int damage = preset.getDamage();
-      Percentage hitRate = preset.getHitRate();
-      int integrityDecrementOnHit = preset.getIntegrityDecrementOnHit();
-      weaponComponent = new WeaponComponent(damage, hitRate, integrityDecrementOnHit);
-    }
-    if (hasTag(Tag.FOOD)) {
-      foodComponent = new FoodComponent(preset.getNutrition(), preset.getIntegrityDecrementOnEat());
-    }
+    // Clocks are the only components with mutable state, all the others are shared through the preset.
     if (hasTag(Tag.CLOCK)) {
       clockComponent = new ClockComponent(this);
     }
-    if (hasTag(Tag.BOOK)) {
-      bookComponent = new BookComponent(preset.getSpellId(), preset.getText());
-    }
+  }
+
+  private ItemPreset getItemPreset() {
+    return (ItemPreset) getPreset();
+  }
+
+  Date getDateOfCreation() {
+    return dateOfCreation;
+  }
+
+  /**
+   * Returns whether or not this Item is identical to a new Item made from its preset with its creation date. Such Items
+   * can be stacked.
+   */
+  boolean isPristine() {
+    return !hasTag(Tag.CLOCK) && integrity.getCurrent() == getItemPreset().getIntegrity().getCurrent();
+  }
+
+  /**
+   * Makes a new Item from the preset of this Item with the same creation date. If this Item is pristine, the new Item is
+   * identical to it.
+   */
+  Item makeIdenticalItem() {
+    return new Item(getItemPreset(), dateOfCreation);
   }
 
   @Override
   public Weight getWeight() {
-    Weight weight = super.getWeight();
     if (hasTag(Tag.WEIGHT_PROPORTIONAL_TO_INTEGRITY)) {
-      return weight.multiply(integrity.toPercentage());
+      return Weight.newInstance(getWeightInKilograms());
+    } else {
+      return super.getWeight();
+    }
+  }
+
+  /**
+   * Returns the weight of this Item in kilograms, without creating a Weight object.
+   */
+  double getWeightInKilograms() {
+    double weight = super.getWeight().toDouble();
+    if (hasTag(Tag.WEIGHT_PROPORTIONAL_TO_INTEGRITY)) {
+      return weight * integrity.toDouble();
     } else {
       return weight;
     }
@@ -100,7 +115,7 @@ public final class Item extends Entity {
   }
 
   public boolean hasTag(Tag tag) {
-    return tagSet.hasTag(tag);
+    return getItemPreset().hasTag(tag);
   }
 
   public ItemIntegrity getIntegrity() {
@@ -108,11 +123,11 @@ public final class Item extends Entity {
   }
 
   public WeaponComponent getWeaponComponent() {
-    return weaponComponent;
+    return getItemPreset().getWeaponComponent();
   }
 
   public FoodComponent getFoodComponent() {
-    return foodComponent;
+    return getItemPreset().getFoodComponent();
   }
 
   public ClockComponent getClockComponent() {
@@ -120,7 +135,7 @@ public final class Item extends Entity {
   }
 
   public BookComponent getBookComponent() {
-    return bookComponent;
+    return getItemPreset().getBookComponent();
   }
 
   public BaseInventory getInventory() {
@@ -141,11 +156,11 @@ public final class Item extends Entity {
   }
 
   public void decrementIntegrityByHit() {
-    integrity.decrementBy(weaponComponent.getIntegrityDecrementOnHit());
+    integrity.decrementBy(getWeaponComponent().getIntegrityDecrementOnHit());
   }
 
   public void decrementIntegrityByEat() {
-    integrity.decrementBy(foodComponent.getIntegrityDecrementOnEat());
+    integrity.decrementBy(getFoodComponent().getIntegrityDecrementOnEat());
   }
 
   public void decrementIntegrityToZero() {
@@ -159,13 +174,63 @@ public final class Item extends Entity {
     return IntegrityState.getIntegrityState(getIntegrity().getCurrent(), getIntegrity().getMaximum()).toString();
   }
 
+  /**
+   * Returns the world time, in milliseconds, at which this Item decomposes. Items that do not decompose return
+   * Long.MAX_VALUE.
+   */
+  long getDecompositionTime() {
+    if (hasTag(Tag.DECOMPOSES)) {
+      return dateOfCreation.getTime() + getDecompositionPeriod() * SECOND.milliseconds;
+    } else {
+      return Long.MAX_VALUE;
+    }
+  }
+
   public long getDecompositionPeriod() {
-    return decompositionPeriod;
+    return getItemPreset().getPutrefactionPeriod();
   }
 
   @Override
   public Luminosity getLuminosity() {
-    return lightSource.getLuminosity();
+    // The light sources of Items are never disabled.
+    return getItemPreset().getLuminosity();
+  }
+
+  /**
+   * Writes the Id of the preset of this Item and the state that may differ from the preset.
+   */
+  public void writeTo(ChunkOutput out) {
+    out.writeId(getId());
+    out.writeDate(dateOfCreation);
+    out.writeVarInt(integrity.getCurrent());
+    Date lastTime = clockComponent == null ? null : clockComponent.getLastTime();
+    out.writeBoolean(lastTime != null);
+    if (lastTime != null) {
+      out.writeDate(lastTime);
+    }
+  }
+
+  /**
+   * Reads an Item written by writeTo.
+   *
+   * @return an Item that is in no inventory or null if its preset no longer exists
+   */
+  public static Item readFrom(ChunkInput in) throws IOException {
+    Id id = in.readId();
+    Date dateOfCreation = in.readDate();
+    int integrity = in.readVarInt();
+    Date lastTime = in.readBoolean() ? in.readDate() : null;
+    ItemPreset preset = ItemFactory.getItemPreset(id);
+    if (preset == null) {
+      DungeonLogger.warning("Item preset not found: " + id + ".");
+      return null;
+    }
+    Item item = new Item(preset, dateOfCreation);
+    item.integrity.setCurrent(integrity);
+    if (item.clockComponent != null) {
+      item.clockComponent.setLastTime(lastTime);
+    }
+    return item;
   }
 
   @Override
@@ -26,6 +26,7 @@ import org.dungeon.entity.Weight;
 import org.dungeon.entity.creatures.Creature;
 import org.dungeon.game.GameData.InvalidTagException;
 import org.dungeon.game.Id;
+import org.dungeon.game.IdTable;
 import org.dungeon.game.NameFactory;
 import org.dungeon.io.DungeonLogger;
 import org.dungeon.io.JsonObjectFactory;
@@ -36,10 +37,7 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -50,14 +48,15 @@ import java.util.Set;
  */
 public abstract class ItemFactory {
 
-  private static final Map<Id, ItemPreset> itemPresets = new HashMap<Id, ItemPreset>();
+  private static final IdTable<ItemPreset> itemPresets = new IdTable<ItemPreset>();
+  private static final IdTable<Id> corpseIds = new IdTable<Id>();
   private static boolean blockingNewItemPresets = false;
 
   /**
-   * Returns an unmodifiable view of the ItemPreset map.
+   * Returns the ItemPreset with the specified Id or null if there is no such preset.
    */
-  private static Map<Id, ItemPreset> getItemPresets() {
-    return Collections.unmodifiableMap(itemPresets);
+  static ItemPreset getItemPreset(@NotNull Id id) {
+    return itemPresets.get(id);
   }
 
   /**
@@ -68,7 +67,7 @@ public abstract class ItemFactory {
    * @return an Item with the specified creation date or null if the preset could not be found
    */
   public static Item makeItem(@NotNull Id id, @NotNull Date date) {
-    ItemPreset itemPreset = getItemPresets().get(id);
+    ItemPreset itemPreset = itemPresets.get(id);
     if (itemPreset != null) {
       return new Item(itemPreset, date);
     } else {
@@ -84,7 +83,7 @@ public abstract class ItemFactory {
     for (JsonValue value : objects.get("items").asArray()) {
       JsonObject itemObject = value.asObject();
       ItemPreset preset = new ItemPreset();
-      preset.setId(new Id(itemObject.get("id").asString()));
+      preset.setId(Id.valueOf(itemObject.get("id").asString()));
       preset.setType(itemObject.get("type").asString());
       preset.setName(NameFactory.fromJsonObject(itemObject.get("name").asObject()));
       for (Item.Tag tag : tagSetFromArray(Item.Tag.class, itemObject.get("tags").asArray())) {
@@ -184,7 +183,12 @@ public abstract class ItemFactory {
    * Given a Creature ID, this method returns the corresponding corpse's ID.
    */
   public static Id makeCorpseIdFromCreatureId(Id id) {
-    return new Id(id + "_CORPSE");
+    Id corpseId = corpseIds.get(id);
+    if (corpseId == null) {
+      corpseId = Id.valueOf(id + "_CORPSE");
+      corpseIds.put(id, corpseId);
+    }
+    return corpseId;
   }
 
 }
@@ -52,6 +52,13 @@ public class ItemIntegrity implements Serializable {
     return integrity.getCurrent();
   }
 
+  /**
+   * Sets the current integrity of an Item that is not in an inventory, without handling breakage. Used when loading.
+   */
+  void setCurrent(int current) {
+    integrity.setCurrent(Math.min(current, integrity.getMaximum()));
+  }
+
   public boolean isPerfect() {
     return integrity.isMaximum();
   }
@@ -69,13 +76,20 @@ public class ItemIntegrity implements Serializable {
     return integrity.toPercentage();
   }
 
+  public double toDouble() {
+    return integrity.toDouble();
+  }
+
   /**
    * Increments the current integrity by the specified amount.
    *
    * @param amount a nonnegative integer
    */
-  public void incrementBy(int amount) { // Convenience that avoids getIntegrity().getIntegrity() in the code.
+  public void incrementBy(int amount) {
+    unstack();
+    double oldWeight = item.getWeightInKilograms();
     integrity.incrementBy(amount);
+    notifyWeightChange(oldWeight);
   }
 
   /**
@@ -85,12 +99,33 @@ public class ItemIntegrity implements Serializable {
    * @param amount a nonnegative integer
    */
   public void decrementBy(int amount) { // Must exist. After delegating the decrement, this method checks for breakage.
+    unstack();
+    double oldWeight = item.getWeightInKilograms();
     integrity.decrementBy(amount);
+    notifyWeightChange(oldWeight);
     if (isBroken()) {
       BreakageHandler.handleBreakage(item);
     }
   }
 
+  /**
+   * Separates the Item from the other units of its stack, if it is part of one, so that only the Item changes.
+   */
+  private void unstack() {
+    if (item.getInventory() != null) {
+      item.getInventory().unstack(item);
+    }
+  }
+
+  /**
+   * Keeps the weight total of the inventory of the Item up to date, if the weight of the Item depends on its integrity.
+   */
+  private void notifyWeightChange(double oldWeight) {
+    if (item.hasTag(Item.Tag.WEIGHT_PROPORTIONAL_TO_INTEGRITY) && item.getInventory() != null) {
+      item.getInventory().updateItemWeight(oldWeight, item.getWeightInKilograms());
+    }
+  }
+
   @Override
   public String toString() {
     return "ItemIntegrity{" +
@@ -27,10 +27,12 @@ import org.dungeon.game.Id;
 import org.dungeon.game.Name;
 import org.dungeon.util.Percentage;
 
+import java.io.Serializable;
+
 /**
  * Stores the information about an item that the factory may need to create it.
  */
-public final class ItemPreset implements Preset {
+public final class ItemPreset implements Preset, Serializable {
 
   private final TagSet<Item.Tag> tagSet = TagSet.makeEmptyTagSet(Item.Tag.class);
   private Id id;
@@ -48,6 +50,10 @@ public final class ItemPreset implements Preset {
   private Id spellId;
   private String text;
   private long putrefactionPeriod;
+  // The immutable components are built once, after the preset is complete, and shared by all Items.
+  private WeaponComponent weaponComponent;
+  private FoodComponent foodComponent;
+  private BookComponent bookComponent;
 
   public TagSet<Item.Tag> getTagSet() {
     return tagSet;
@@ -164,7 +170,7 @@ public final class ItemPreset implements Preset {
   }
 
   public void setSpellId(String spellIdString) {
-    this.spellId = new Id(spellIdString);
+    this.spellId = Id.valueOf(spellIdString);
   }
 
   public String getText() {
@@ -183,6 +189,34 @@ public final class ItemPreset implements Preset {
     this.putrefactionPeriod = putrefactionPeriod;
   }
 
+  WeaponComponent getWeaponComponent() {
+    if (weaponComponent == null && hasTag(Item.Tag.WEAPON)) {
+      weaponComponent = new WeaponComponent(damage, hitRate, integrityDecrementOnHit);
+    }
+    return weaponComponent;
+  }
+
+  FoodComponent getFoodComponent() {
+    if (foodComponent == null && hasTag(Item.Tag.FOOD)) {
+      foodComponent = new FoodComponent(nutrition, integrityDecrementOnEat);
+    }
+    return foodComponent;
+  }
+
+  BookComponent getBookComponent() {
+    if (bookComponent == null && hasTag(Item.Tag.BOOK)) {
+      bookComponent = new BookComponent(spellId, text);
+    }
+    return bookComponent;
+  }
+
+  /**
+   * Serializes only the Id of this preset, so that saved Items refer to the preset loaded by ItemFactory.
+   */
+  private Object writeReplace() {
+    return new SerializationProxy(id);
+  }
+
   @Override
   public String toString() {
     return "ItemPreset{" +
@@ -205,4 +239,22 @@ public final class ItemPreset implements Preset {
         '}';
   }
 
+  private static class SerializationProxy implements Serializable {
+
+    private final Id id;
+
+    SerializationProxy(Id id) {
+      this.id = id;
+    }
+
+    private Object readResolve() {
+      ItemPreset preset = ItemFactory.getItemPreset(id);
+      if (preset == null) {
+        throw new IllegalStateException("no ItemPreset with Id " + id + ".");
+      }
+      return preset;
+    }
+
+  }
+
 }
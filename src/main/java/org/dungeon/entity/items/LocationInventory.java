@@ -17,19 +17,292 @@
 
 package org.dungeon.entity.items;
 
+import org.dungeon.game.Id;
+import org.dungeon.game.Location;
+import org.dungeon.io.ChunkInput;
+import org.dungeon.io.ChunkOutput;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 /**
  * The inventory used by Location objects.
+ *
+ * <p>Pristine Items with the same Id and creation date are stacked: a single Item stands for all the units and the
+ * inventory only keeps their count. Stacks are split when one of their units is removed or modified.
  */
 public class LocationInventory extends BaseInventory {
 
+  private final Location location;
+  // The number of units of each Item that stands for more than one unit.
+  private final Map<Item, Integer> stackSizes = new HashMap<Item, Integer>();
+  private int unitCount;
+  // The pristine Items of this inventory, which further identical Items are stacked onto.
+  private transient Map<StackKey, Item> stacks;
+
+  public LocationInventory(Location location) {
+    this.location = location;
+  }
+
+  private Map<StackKey, Item> getStacks() {
+    if (stacks == null) {
+      stacks = new HashMap<StackKey, Item>();
+      for (Item item : items) {
+        if (item.isPristine()) {
+          stacks.put(new StackKey(item), item);
+        }
+      }
+    }
+    return stacks;
+  }
+
+  private void setStackSize(Item item, int size) {
+    if (size > 1) {
+      stackSizes.put(item, size);
+    } else {
+      stackSizes.remove(item);
+    }
+  }
+
+  /**
+   * Adds an Item to this inventory. If the Item is pristine and an identical Item is already here, the Item is stacked
+   * onto it and the Item object itself is discarded.
+   *
+   * @param item the Item to be added, not null
+   */
   public void addItem(Item item) {
-    items.add(item);
-    item.setInventory(this);
+    Item stack = item.isPristine() ? getStacks().get(new StackKey(item)) : null;
+    if (stack != null) {
+      setStackSize(stack, getStackSize(stack) + 1);
+      item.setInventory(null);
+    } else {
+      insert(item);
+      item.setInventory(this);
+      if (item.isPristine()) {
+        getStacks().put(new StackKey(item), item);
+      }
+    }
+    unitCount++;
+    location.notifyEntityChange();
+  }
+
+  /**
+   * Writes the Items of this inventory. A stack is written as its Item followed by the number of units.
+   */
+  public void writeTo(ChunkOutput out) {
+    out.writeVarInt(items.size());
+    for (Item item : items) {
+      item.writeTo(out);
+      out.writeVarInt(getStackSize(item));
+    }
   }
 
+  /**
+   * Adds the Items written by writeTo to this inventory, keeping the stacks as they were.
+   */
+  public void readFrom(ChunkInput in) throws IOException {
+    int distinctItems = in.readVarInt();
+    for (int i = 0; i < distinctItems; i++) {
+      Item item = Item.readFrom(in);
+      int size = in.readVarInt();
+      if (size == 0) {
+        throw new IOException("empty stack in chunk.");
+      }
+      if (item != null) {
+        insert(item);
+        item.setInventory(this);
+        setStackSize(item, size);
+        unitCount += size;
+      }
+    }
+    stacks = null; // Rebuilt from the Items when needed.
+    location.notifyEntityChange();
+  }
+
+  /**
+   * Removes a single unit from this inventory. If the Item stands for more units, an identical Item takes its place.
+   *
+   * @param item the Item to be removed, not null
+   */
   public void removeItem(Item item) {
-    items.remove(item);
+    if (hasItem(item)) {
+      int size = getStackSize(item);
+      if (size > 1) {
+        replaceStackItem(item, size - 1);
+      } else {
+        delete(item);
+        forgetStack(item);
+      }
+      unitCount--;
+      location.notifyEntityChange();
+    }
     item.setInventory(null);
   }
 
+  @Override
+  void removeDecomposedItem(Item item) {
+    unitCount -= getStackSize(item) - 1;
+    setStackSize(item, 1);
+    removeItem(item);
+  }
+
+  @Override
+  void unstack(Item item) {
+    int size = getStackSize(item);
+    if (size > 1) {
+      // The Item is about to change and will stand for itself only. The other units go to a new Item.
+      Item rest = item.makeIdenticalItem();
+      insert(rest);
+      rest.setInventory(this);
+      setStackSize(rest, size - 1);
+      setStackSize(item, 1);
+      getStacks().put(new StackKey(rest), rest);
+      location.notifyEntityChange();
+    } else {
+      forgetStack(item);
+    }
+  }
+
+  /**
+   * Replaces an Item that stands for a stack by a new identical Item that stands for the specified number of units.
+   */
+  private void replaceStackItem(Item item, int size) {
+    Item rest = item.makeIdenticalItem();
+    replace(item, rest);
+    rest.setInventory(this);
+    setStackSize(item, 1);
+    setStackSize(rest, size);
+    getStacks().put(new StackKey(rest), rest);
+  }
+
+  /**
+   * Ensures that no further Items are stacked onto the specified Item.
+   */
+  private void forgetStack(Item item) {
+    StackKey key = new StackKey(item);
+    if (getStacks().get(key) == item) {
+      getStacks().remove(key);
+    }
+  }
+
+  /**
+   * Returns an unmodifiable view of the list of the Items, in which every stack appears once per unit.
+   */
+  @Override
+  public List<Item> getItems() {
+    return new UnitList();
+  }
+
+  @Override
+  public int getItemCount() {
+    return unitCount;
+  }
+
+  @Override
+  public int getStackSize(Item item) {
+    Integer size = stackSizes.get(item);
+    if (size != null) {
+      return size;
+    }
+    return hasItem(item) ? 1 : 0;
+  }
+
+  /**
+   * The key of a stack: Items with the same Id and the same creation date.
+   */
+  private static final class StackKey {
+
+    private final Id id;
+    private final long dateOfCreation;
+
+    StackKey(Item item) {
+      this.id = item.getId();
+      this.dateOfCreation = item.getDateOfCreation().getTime();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      StackKey that = (StackKey) o;
+      return dateOfCreation == that.dateOfCreation && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * id.hashCode() + (int) (dateOfCreation ^ (dateOfCreation >>> 32));
+    }
+
+  }
+
+  /**
+   * A read-only view of the Items of this inventory in which each Item is repeated once per unit it stands for.
+   */
+  private final class UnitList extends AbstractList<Item> {
+
+    @Override
+    public Item get(int index) {
+      if (index < 0) {
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+      }
+      int remaining = index;
+      for (Item item : items) {
+        remaining -= getStackSize(item);
+        if (remaining < 0) {
+          return item;
+        }
+      }
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+
+    @Override
+    public int size() {
+      return unitCount;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+      return new Iterator<Item>() {
+
+        private int index;
+        private int repetitions;
+
+        @Override
+        public boolean hasNext() {
+          return repetitions > 0 || index < items.size();
+        }
+
+        @Override
+        public Item next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          if (repetitions == 0) {
+            repetitions = getStackSize(items.get(index));
+            index++;
+          }
+          repetitions--;
+          return items.get(index - 1);
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+
+      };
+    }
+
+  }
+
 }
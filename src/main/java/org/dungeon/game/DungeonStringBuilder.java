@@ -34,7 +34,7 @@ import java.util.List;
 public final class DungeonStringBuilder implements Writable {
 
   /**
-   * A list of ColoredStrings. No string from this list is empty. Adjacent strings may have the same color.
+   * A list of ColoredStrings. No string from this list is empty. Adjacent strings never have the same color.
    *
    * <p>Should only be accessed through the getter (except for addBuilderContentToList).
    */
@@ -54,6 +54,11 @@ public final class DungeonStringBuilder implements Writable {
 
   private void addBuilderContentToList() {
     if (builder.length() != 0) {
+      int last = coloredStringList.size() - 1;
+      if (last >= 0 && coloredStringList.get(last).getColor().equals(currentColor)) {
+        // The color was changed back before anything was appended with the other color.
+        builder.insert(0, coloredStringList.remove(last).getString());
+      }
       coloredStringList.add(new ColoredString(builder.toString(), currentColor));
       builder.setLength(0);
     }
@@ -71,15 +76,35 @@ public final class DungeonStringBuilder implements Writable {
     builder.append(string);
   }
 
+  /**
+   * Appends the contents of a Writable to this builder, keeping their colors. The current color of this builder becomes
+   * the color of the last string of the Writable.
+   *
+   * @param writable a Writable object
+   */
+  public void append(@NotNull Writable writable) {
+    for (ColoredString coloredString : writable.toColoredStringList()) {
+      setColor(coloredString.getColor());
+      append(coloredString.getString());
+    }
+  }
+
+  /**
+   * Returns whether or not nothing was appended to this builder.
+   */
+  public boolean isEmpty() {
+    return builder.length() == 0 && coloredStringList.isEmpty();
+  }
+
   /**
    * Changes the current color of this builder. This will only impact future calls to append.
    *
-   * <p>Passing the current color of the builder to this method does no harm.
+   * <p>Passing the current color of the builder, or an equal Color, to this method does no harm.
    *
    * @param color a Color object
    */
   public void setColor(@NotNull Color color) {
-    if (currentColor != color) {
+    if (!currentColor.equals(color)) {
       addBuilderContentToList();
       currentColor = color;
     }
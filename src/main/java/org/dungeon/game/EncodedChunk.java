@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.game;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A chunk of a loaded World that is only decoded when one of its Locations is first needed. See World.addEncodedChunk.
+ */
+public interface EncodedChunk {
+
+  /**
+   * Decodes the Locations of the chunk.
+   *
+   * @return a map from Points to Locations that can be passed to World.addChunk
+   */
+  Map<Point, Location> decode() throws IOException;
+
+  /**
+   * Returns the encoded chunk, as it would be saved, without decoding it.
+   */
+  byte[] getPayload() throws IOException;
+
+}
@@ -21,6 +21,7 @@ import org.dungeon.commands.Command;
 import org.dungeon.commands.CommandCollection;
 import org.dungeon.commands.IssuedCommand;
 import org.dungeon.gui.GameWindow;
+import org.dungeon.io.Autosaver;
 import org.dungeon.io.DungeonLogger;
 import org.dungeon.io.Loader;
 import org.dungeon.io.Writer;
@@ -105,9 +106,11 @@ public class Game {
   private static GameState getAfterDeathGameState() {
     GameState gameState = Loader.loadGame(false);
     if (gameState != null) {
+      Writer.flush();
       JOptionPane.showMessageDialog(getGameWindow(), "Loaded the most recent saved game.");
     } else {
       gameState = Loader.newGame();
+      Writer.flush();
       JOptionPane.showMessageDialog(getGameWindow(), "Could not load a saved game. Created a new game.");
     }
     return gameState;
@@ -156,14 +159,22 @@ public class Game {
   public static void renderTurn(IssuedCommand issuedCommand) {
     // Clears the text pane.
     getGameWindow().clearTextPane();
-    processInput(issuedCommand);
-    if (getGameState().getHero().getHealth().isDead()) {
-      getGameWindow().clearTextPane();
-      Writer.writeString("You died.");
-      unsetGameState();
-      setGameState(getAfterDeathGameState());
-    } else {
-      Engine.endTurn();
+    Writer.startBuffering();
+    try {
+      processInput(issuedCommand);
+      if (getGameState().getHero().getHealth().isDead()) {
+        Writer.flush();
+        getGameWindow().clearTextPane();
+        Writer.writeString("You died.");
+        unsetGameState();
+        setGameState(getAfterDeathGameState());
+      } else {
+        Engine.endTurn();
+        Autosaver.endTurn(getGameState());
+      }
+    } finally {
+      // Everything written during the turn reaches the window at once.
+      Writer.stopBuffering();
     }
   }
 
@@ -187,11 +198,16 @@ public class Game {
 
   /**
    * Exits the game, prompting the user if the current state should be saved if it is not already saved.
+   *
+   * <p>If the game cannot be saved, it does not exit, so that the player may try to save it elsewhere.
    */
   public static void exit() {
     if (getGameState() != null && !getGameState().isSaved()) {
-      Loader.saveGame(getGameState());
+      if (!Loader.saveGame(getGameState())) {
+        return;
+      }
     }
+    Loader.waitForPendingSaves();
     logInstanceClosing();
     System.exit(0);
   }
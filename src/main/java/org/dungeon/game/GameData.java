@@ -37,6 +37,7 @@ public final class GameData {
   private static final LocationPresetStore locationPresetStore = new LocationPresetStore();
   public static String LICENSE;
   private static String tutorial = null;
+  private static boolean loaded;
 
   private GameData() { // Ensure that this class cannot be instantiated.
     throw new AssertionError();
@@ -50,10 +51,13 @@ public final class GameData {
   }
 
   /**
-   * Triggers essential game data loading.
+   * Triggers essential game data loading. Does nothing if the data was already loaded.
    */
   static void loadGameData() {
-    effectivelyLoadGameData();
+    if (!loaded) {
+      effectivelyLoadGameData();
+      loaded = true;
+    }
   }
 
   /**
@@ -72,7 +76,7 @@ public final class GameData {
     JsonObject jsonObject = JsonObjectFactory.makeJsonObject("locations.json");
     for (JsonValue jsonValue : jsonObject.get("locations").asArray()) {
       JsonObject presetObject = jsonValue.asObject();
-      Id id = new Id(presetObject.get("id").asString());
+      Id id = Id.valueOf(presetObject.get("id").asString());
       LocationPreset.Type type = LocationPreset.Type.valueOf(presetObject.get("type").asString());
       Name name = NameFactory.fromJsonObject(presetObject.get("name").asObject());
       LocationPreset preset = new LocationPreset(id, type, name);
@@ -24,6 +24,8 @@ import org.dungeon.io.JsonObjectFactory;
 import org.dungeon.stats.Statistics;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 public class GameState implements Serializable {
 
@@ -34,6 +36,10 @@ public class GameState implements Serializable {
   private Point heroPosition;
 
   transient private boolean saved = false;
+  // The name of the save file this GameState was last saved to or loaded from by the player, if any.
+  transient private String saveName;
+  // The modification count of the World when this GameState was last written to or read from each save file.
+  transient private Map<String, Long> saveCheckpoints;
 
   public GameState() {
     commandHistory = new CommandHistory();
@@ -82,6 +88,29 @@ public class GameState implements Serializable {
     this.heroPosition = heroPosition;
   }
 
+  public String getSaveName() {
+    return saveName;
+  }
+
+  public void setSaveName(String saveName) {
+    this.saveName = saveName;
+  }
+
+  /**
+   * Returns the modification count of the World when this GameState was last written to or read from the save file
+   * with the specified name, or null if it was not.
+   */
+  public Long getSaveCheckpoint(String saveName) {
+    return saveCheckpoints == null ? null : saveCheckpoints.get(saveName);
+  }
+
+  public void setSaveCheckpoint(String saveName, long modificationCount) {
+    if (saveCheckpoints == null) {
+      saveCheckpoints = new HashMap<String, Long>();
+    }
+    saveCheckpoints.put(saveName, modificationCount);
+  }
+
   public boolean isSaved() {
     return saved;
   }
@@ -90,6 +119,15 @@ public class GameState implements Serializable {
     this.saved = saved;
   }
 
+  /**
+   * Compacts the World. See World.compact.
+   *
+   * @return how many Items were removed from the ground
+   */
+  public int compact() {
+    return world.compact();
+  }
+
   /**
    * Retrieves the Location object that contains the hero.
    *
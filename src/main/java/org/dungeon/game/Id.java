@@ -18,6 +18,8 @@
 package org.dungeon.game;
 
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Id class that wraps an identification String.
@@ -25,19 +27,49 @@ import java.io.Serializable;
  * <p>The wrapped String is guaranteed to only contain valid characters.
  *
  * <p>Valid characters are: uppercase ASCII letters, digits, and the underscore.
+ *
+ * <p>Ids are interned: there is only one Id for each String, which is obtained through {@link #valueOf(String)}. Each
+ * Id also has a dense ordinal, assigned in the order in which Ids are first requested, that can be used to index
+ * arrays. Ordinals depend on the order in which the resources were loaded and should not be persisted.
  */
 public final class Id implements Serializable {
 
+  private static final Map<String, Id> registry = new HashMap<String, Id>();
+
   private final String id;
+  private final transient int ordinal;
+
+  private Id(String id, int ordinal) {
+    this.id = id;
+    this.ordinal = ordinal;
+  }
 
   /**
-   * Constructs an Id from a String.
+   * Returns the Id that wraps the specified String, creating it if this is the first time the String is used.
    *
    * <p>Valid characters are: uppercase ASCII letters, digits, and the underscore.
    *
    * @param id the Id String
+   * @return the only Id that wraps the String
+   */
+  public static synchronized Id valueOf(String id) {
+    Id interned = registry.get(id);
+    if (interned == null) {
+      validate(id);
+      interned = new Id(id, registry.size());
+      registry.put(id, interned);
+    }
+    return interned;
+  }
+
+  /**
+   * Returns how many Ids have been created so far. All ordinals are smaller than this number.
    */
-  public Id(String id) {
+  public static synchronized int getIdCount() {
+    return registry.size();
+  }
+
+  private static void validate(String id) {
     if (id == null) {
       throw new IllegalArgumentException("tried to create an Id with null.");
     } else if (id.isEmpty()) {
@@ -48,7 +80,6 @@ public final class Id implements Serializable {
           throw new IllegalArgumentException("got invalid Id string: " + id);
         }
       }
-      this.id = id;
     }
   }
 
@@ -69,6 +100,20 @@ public final class Id implements Serializable {
     return !Character.isDigit(character) && character != '_';
   }
 
+  /**
+   * Returns the ordinal of this Id, a non-negative integer smaller than {@link #getIdCount()}.
+   */
+  public int getOrdinal() {
+    return ordinal;
+  }
+
+  /**
+   * Replaces deserialized Ids by the interned ones.
+   */
+  private Object readResolve() {
+    return valueOf(id);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A map from Ids to values that is backed by an array indexed by the ordinals of the Ids.
+ *
+ * <p>Lookups are a bounds check and an array access, which makes this class suitable for the preset tables that are
+ * queried whenever an entity is created or deserialized.
+ *
+ * @param <V> the type of the values
+ */
+public final class IdTable<V> {
+
+  private Object[] values = new Object[0];
+  private int size;
+
+  /**
+   * Associates a value with an Id, replacing the previous value, if any.
+   *
+   * @param id the Id, not null
+   * @param value the value, not null
+   */
+  public void put(Id id, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("value should not be null.");
+    }
+    int ordinal = id.getOrdinal();
+    if (ordinal >= values.length) {
+      values = Arrays.copyOf(values, Math.max(ordinal + 1, Id.getIdCount()));
+    }
+    if (values[ordinal] == null) {
+      size++;
+    }
+    values[ordinal] = value;
+  }
+
+  /**
+   * Returns the value associated with the specified Id or null if there is no such value.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(Id id) {
+    int ordinal = id.getOrdinal();
+    return ordinal < values.length ? (V) values[ordinal] : null;
+  }
+
+  public boolean containsKey(Id id) {
+    return get(id) != null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns an unmodifiable list of the values of this table, in the order in which their Ids were created.
+   */
+  @SuppressWarnings("unchecked")
+  public List<V> values() {
+    List<V> list = new ArrayList<V>(size);
+    for (Object value : values) {
+      if (value != null) {
+        list.add((V) value);
+      }
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  @Override
+  public String toString() {
+    return "IdTable{" + "size=" + size + '}';
+  }
+
+}
@@ -17,17 +17,21 @@
 
 package org.dungeon.game;
 
-import org.dungeon.entity.Entity;
 import org.dungeon.entity.Luminosity;
 import org.dungeon.entity.creatures.Creature;
+import org.dungeon.entity.creatures.Hero;
 import org.dungeon.entity.items.Item;
 import org.dungeon.entity.items.ItemFactory;
 import org.dungeon.entity.items.LocationInventory;
+import org.dungeon.io.ChunkInput;
+import org.dungeon.io.ChunkOutput;
 import org.dungeon.io.DungeonLogger;
+import org.dungeon.util.CounterMap;
 import org.dungeon.util.Percentage;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -42,11 +46,19 @@ public final class Location implements Serializable {
   private final Name name;
   private final LocationDescription description;
   private final BlockedEntrances blockedEntrances;
-  private final List<Creature> creatures;
+  private final ArrayList<Creature> creatures;
+  private final CounterMap<Id> creatureCounter;
   private final List<Spawner> spawners;
   private final LocationInventory items;
   private final Percentage lightPermittivity;
-  private final World world;
+  // Locations are saved in chunks, apart from their World, so this is set again by the World after loading.
+  private transient World world;
+  // The cached luminosity of the Location and the PartOfDay for which it was computed.
+  private transient Luminosity luminosity;
+  private transient PartOfDay luminosityPartOfDay;
+  // Incremented whenever an Entity enters or leaves this Location.
+  private transient int version;
+  private transient ViewCache viewCache;
 
   /**
    * Constructs a new location for the specified world based on the provided preset.
@@ -57,6 +69,10 @@ public final class Location implements Serializable {
    * @param world the World object
    */
   public Location(@NotNull LocationPreset preset, @NotNull World world) {
+    this(preset, world, true);
+  }
+
+  private Location(@NotNull LocationPreset preset, @NotNull World world, boolean placeItems) {
     this.id = preset.getId();
     this.name = preset.getName();
     this.description = preset.getDescription();
@@ -64,11 +80,15 @@ public final class Location implements Serializable {
     this.blockedEntrances = preset.getBlockedEntrances();
     this.lightPermittivity = preset.getLightPermittivity();
     this.creatures = new ArrayList<Creature>();
+    this.creatureCounter = new CounterMap<Id>();
     this.spawners = new ArrayList<Spawner>(preset.getSpawners().size());
     for (SpawnerPreset spawner : preset.getSpawners()) {
       spawners.add(new Spawner(spawner, this));
     }
-    this.items = new LocationInventory();
+    this.items = new LocationInventory(this);
+    if (!placeItems) {
+      return;
+    }
     for (Entry<Id, Percentage> entry : preset.getItems()) {
       if (Random.roll(entry.getValue())) {
         Item item = ItemFactory.makeItem(entry.getKey(), world.getWorldDate());
@@ -106,30 +126,62 @@ public final class Location implements Serializable {
   /**
    * Returns the luminosity of the Location. This value depends on the World luminosity, on the Location's specific
    * light permittivity and on the luminosity of the Entities in this location.
+   *
+   * <p>The value is cached until an Entity is added or removed, a light source is toggled (see invalidateLuminosity)
+   * or the PartOfDay changes.
    */
   public Luminosity getLuminosity() {
-    // Light permittivity is only applied to the luminosity that comes from the sky.
-    Percentage fromEntities = Luminosity.resultantLuminosity(getEntities()).toPercentage();
-    Percentage fromTheWorld = getLightPermittivity().multiply(getWorld().getPartOfDay().getLuminosity().toPercentage());
-    return new Luminosity(new Percentage(Math.min(fromEntities.toDouble() + fromTheWorld.toDouble(), 1.0)));
+    PartOfDay partOfDay = getWorld().getPartOfDay();
+    if (luminosity == null || luminosityPartOfDay != partOfDay) {
+      // Light permittivity is only applied to the luminosity that comes from the sky.
+      double fromEntities = Luminosity.sum(getCreatures()) + Luminosity.sum(getItemList());
+      double fromTheWorld = getLightPermittivity().toDouble() * partOfDay.getLuminosity().toDouble();
+      luminosity = new Luminosity(new Percentage(Math.min(fromEntities + fromTheWorld, 1.0)));
+      luminosityPartOfDay = partOfDay;
+    }
+    return luminosity;
   }
 
-  public List<Creature> getCreatures() {
-    return creatures;
+  /**
+   * Discards the cached luminosity of this Location. Must be called whenever the luminosity of an Entity in this
+   * Location changes without the Entity being added or removed, such as when a LightSource is enabled or disabled.
+   */
+  public void invalidateLuminosity() {
+    luminosity = null;
   }
 
-  public LocationInventory getInventory() {
-    return items;
+  /**
+   * Records that an Entity entered or left this Location. This discards the cached luminosity and makes all cached
+   * views of this Location stale. Should not be called for the Hero, who is not part of the views.
+   */
+  public void notifyEntityChange() {
+    invalidateLuminosity();
+    version++;
   }
 
   /**
-   * Returns a list with all the entities in the current location.
+   * Returns the version of this Location, which changes whenever an Entity other than the Hero enters or leaves it.
    */
-  private List<Entity> getEntities() {
-    List<Entity> entities = new ArrayList<Entity>();
-    entities.addAll(getCreatures());
-    entities.addAll(getItemList());
-    return entities;
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the ViewCache of this Location, which is not saved with the game.
+   */
+  public ViewCache getViewCache() {
+    if (viewCache == null) {
+      viewCache = new ViewCache();
+    }
+    return viewCache;
+  }
+
+  public List<Creature> getCreatures() {
+    return creatures;
+  }
+
+  public LocationInventory getInventory() {
+    return items;
   }
 
   public List<Item> getItemList() {
@@ -140,14 +192,11 @@ public final class Location implements Serializable {
     return creatures.size();
   }
 
+  /**
+   * Returns how many Creatures with the specified Id are in this Location. This is a constant time operation.
+   */
   public int getCreatureCount(Id id) {
-    int count = 0;
-    for (Creature creature : creatures) {
-      if (creature.getId().equals(id)) {
-        count++;
-      }
-    }
-    return count;
+    return creatureCounter.getCounter(id);
   }
 
   /**
@@ -159,6 +208,8 @@ public final class Location implements Serializable {
   public void addCreature(Creature creature) {
     creature.setLocation(this);
     creatures.add(creature);
+    creatureCounter.incrementCounter(creature.getId());
+    notifyCreatureChange(creature);
   }
 
   public void addItem(Item item) {
@@ -174,13 +225,32 @@ public final class Location implements Serializable {
       spawner.notifyKill(creature);
     }
     // The creature must be removed after the spawns are notified.
-    creatures.remove(creature);
+    if (creatures.remove(creature)) {
+      creatureCounter.decrementCounter(creature.getId());
+      notifyCreatureChange(creature);
+    }
+  }
+
+  /**
+   * Records that a Creature entered or left this Location. The Hero may carry a light, but it does not see itself, so
+   * its moves keep the cached views of this Location.
+   */
+  private void notifyCreatureChange(Creature creature) {
+    if (creature instanceof Hero) {
+      invalidateLuminosity();
+    } else {
+      notifyEntityChange();
+    }
   }
 
   public World getWorld() {
     return world;
   }
 
+  void setWorld(World world) {
+    this.world = world;
+  }
+
   public BlockedEntrances getBlockedEntrances() {
     return blockedEntrances;
   }
@@ -200,6 +270,92 @@ public final class Location implements Serializable {
     }
   }
 
+  /**
+   * Discards state that can no longer affect the game and trims the collections of this Location to their sizes.
+   *
+   * <p>Decomposed Items are removed.
+   *
+   * @return how many Items were removed from the ground
+   */
+  public int compact() {
+    int itemCount = items.getItemCount();
+    refreshItems();
+    creatures.trimToSize();
+    items.compact();
+    for (Creature creature : creatures) {
+      creature.getInventory().compact();
+    }
+    viewCache = null;
+    return itemCount - items.getItemCount();
+  }
+
+  /**
+   * Writes the Id of the preset of this Location and the state that may differ from the preset. The Hero is saved with
+   * the GameState, so only its position among the Creatures is written.
+   */
+  public void writeTo(ChunkOutput out) {
+    out.writeId(id);
+    out.writeVarInt(spawners.size());
+    for (Spawner spawner : spawners) {
+      out.writeTime(spawner.getLastChange());
+    }
+    int heroIndex = -1;
+    for (int i = 0; i < creatures.size(); i++) {
+      if (creatures.get(i) instanceof Hero) {
+        heroIndex = i;
+      }
+    }
+    out.writeVarInt(heroIndex + 1);
+    out.writeVarInt(heroIndex == -1 ? creatures.size() : creatures.size() - 1);
+    for (Creature creature : creatures) {
+      if (!(creature instanceof Hero)) {
+        creature.writeTo(out);
+      }
+    }
+    items.writeTo(out);
+  }
+
+  /**
+   * Reads a Location written by writeTo.
+   *
+   * @param in the ChunkInput
+   * @param world the World of the Location
+   * @param hero the Hero, which is put back in its place if it was in this Location
+   * @return a Location
+   */
+  public static Location readFrom(ChunkInput in, World world, Hero hero) throws IOException {
+    Id id = in.readId();
+    LocationPreset preset = GameData.getLocationPresetStore().getLocationPreset(id);
+    if (preset == null) {
+      throw new IOException("location preset not found: " + id + ".");
+    }
+    Location location = new Location(preset, world, false);
+    int spawnerCount = in.readVarInt();
+    for (int i = 0; i < spawnerCount; i++) {
+      long lastChange = in.readTime();
+      // Spawners are matched by position, as the preset may have changed since the game was saved.
+      if (i < location.spawners.size()) {
+        location.spawners.get(i).setLastChange(lastChange);
+      }
+    }
+    int heroIndex = in.readVarInt() - 1;
+    int creatureCount = in.readVarInt();
+    for (int i = 0; i < creatureCount; i++) {
+      if (i == heroIndex) {
+        location.addCreature(hero);
+      }
+      Creature creature = Creature.readFrom(in);
+      if (creature != null) {
+        location.addCreature(creature);
+      }
+    }
+    if (heroIndex >= creatureCount) {
+      location.addCreature(hero);
+    }
+    location.items.readFrom(in);
+    return location;
+  }
+
   @Override
   public String toString() {
     return name.getSingular();
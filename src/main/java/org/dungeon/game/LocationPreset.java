@@ -92,7 +92,7 @@ public final class LocationPreset implements Serializable {
    * @param probability the probability of the item appearing
    */
   public void addItem(String id, Double probability) {
-    items.put(new Id(id), new Percentage(probability));
+    items.put(Id.valueOf(id), new Percentage(probability));
   }
 
   public BlockedEntrances getBlockedEntrances() {
@@ -31,7 +31,7 @@ import java.util.Set;
  */
 public class LocationPresetStore {
 
-  private final Map<Id, LocationPreset> idLocationPresetMap = new HashMap<Id, LocationPreset>();
+  private final IdTable<LocationPreset> idLocationPresetMap = new IdTable<LocationPreset>();
   private final Map<Type, List<LocationPreset>> typeLocationPresetMap = new HashMap<Type, List<LocationPreset>>();
 
   LocationPresetStore() {
@@ -45,6 +45,13 @@ public class LocationPresetStore {
     typeLocationPresetMap.get(preset.getType()).add(preset);
   }
 
+  /**
+   * Returns the LocationPreset with the specified Id or null if there is no such preset.
+   */
+  public LocationPreset getLocationPreset(Id id) {
+    return idLocationPresetMap.get(id);
+  }
+
   public Collection<LocationPreset> getAllPresets() {
     return idLocationPresetMap.values();
   }
@@ -30,6 +30,7 @@ public final class Name implements Serializable {
 
   private final String singular;
   private final String plural;
+  private transient String[] tokens;
 
   /**
    * Constructs a name based on the specified forms. Names should be created through NameFactory and not through this
@@ -50,6 +51,17 @@ public final class Name implements Serializable {
     return singular;
   }
 
+  /**
+   * Returns the lower case words of the singular form of this Name. The array is computed only once and is shared, so
+   * it must not be modified.
+   */
+  public String[] getTokens() {
+    if (tokens == null) {
+      tokens = singular.toLowerCase().split("\\s+");
+    }
+    return tokens;
+  }
+
   /**
    * Returns a string representing a quantified name using words for quantifiers. e.g.: {@code "One Sword", "Two Bears",
    * "Three Elephants", "A few Cows"}
@@ -44,12 +44,14 @@ public class Random {
   /**
    * Simulates a random roll.
    *
-   * @param chance the probability of a true result. Must be nonnegative and smaller than or equal to 1. Will be passed
-   * to Percentage's constructors in order to guarantee that it is a valid value.
+   * <p>Values smaller than 0 never succeed and values bigger than or equal to 1 always succeed, so there is no need to
+   * wrap the chance in a Percentage.
+   *
+   * @param chance the probability of a true result. Should be nonnegative and smaller than or equal to 1.
    * @return a boolean indicating if the roll was successful or not.
    */
   public static boolean roll(double chance) {
-    return roll(new Percentage(chance));
+    return chance > RANDOM.nextDouble();
   }
 
   /**
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.game;
+
+import org.dungeon.util.DungeonMath;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index that maps Ids to the Points where they occur.
+ *
+ * <p>Points are bucketed into square chunks of a fixed side, so queries only visit the chunks that may contain the
+ * answer instead of every indexed Point. All distances are Manhattan distances, which is how far the Hero has to walk
+ * between two Points.
+ */
+public final class SpatialIndex implements Serializable {
+
+  private static final int CHUNK_SIDE = 16;
+
+  private final Map<Id, Grid> grids = new HashMap<Id, Grid>();
+
+  /**
+   * Returns the Manhattan distance between two Points.
+   */
+  public static int distance(@NotNull Point a, @NotNull Point b) {
+    return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+  }
+
+  /**
+   * Returns the chunk coordinate of a point coordinate. Rounds towards negative infinity.
+   */
+  private static int toChunkCoordinate(int coordinate) {
+    return DungeonMath.floorDivide(coordinate, CHUNK_SIDE);
+  }
+
+  /**
+   * Indexes a Point under the specified Id. Indexing the same Point under the same Id twice has no effect.
+   *
+   * @param id the Id, not null
+   * @param point the Point, not null
+   */
+  public void add(@NotNull Id id, @NotNull Point point) {
+    Grid grid = grids.get(id);
+    if (grid == null) {
+      grid = new Grid();
+      grids.put(id, grid);
+    }
+    grid.add(point);
+  }
+
+  /**
+   * Returns how many Points are indexed under the specified Id.
+   */
+  public int count(@NotNull Id id) {
+    Grid grid = grids.get(id);
+    return grid == null ? 0 : grid.size;
+  }
+
+  /**
+   * Returns the Point indexed under the specified Id that is the closest to the origin.
+   *
+   * @param id the Id, not null
+   * @param origin the Point from which distances are measured, not null
+   * @return a Point or null if there are no Points indexed under the Id
+   */
+  @Nullable
+  public Point findNearest(@NotNull Id id, @NotNull Point origin) {
+    Grid grid = grids.get(id);
+    return grid == null ? null : grid.findNearest(origin);
+  }
+
+  /**
+   * Returns all Points indexed under the specified Id that are at most radius away from the origin.
+   *
+   * @param id the Id, not null
+   * @param origin the Point from which distances are measured, not null
+   * @param radius the maximum distance, nonnegative
+   * @return an unmodifiable List of Points, possibly empty
+   */
+  @NotNull
+  public List<Point> findWithin(@NotNull Id id, @NotNull Point origin, int radius) {
+    if (radius < 0) {
+      throw new IllegalArgumentException("radius should be nonnegative.");
+    }
+    Grid grid = grids.get(id);
+    if (grid == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(grid.findWithin(origin, radius));
+  }
+
+  @Override
+  public String toString() {
+    return "SpatialIndex{" + "ids=" + grids.keySet() + '}';
+  }
+
+  /**
+   * The chunks of Points indexed under a single Id, together with the bounding box of the occupied chunks.
+   */
+  private static final class Grid implements Serializable {
+
+    private final Map<Point, List<Point>> chunks = new HashMap<Point, List<Point>>();
+    private int size;
+    private int minimumX;
+    private int maximumX;
+    private int minimumY;
+    private int maximumY;
+
+    void add(Point point) {
+      int chunkX = toChunkCoordinate(point.getX());
+      int chunkY = toChunkCoordinate(point.getY());
+      Point key = new Point(chunkX, chunkY);
+      List<Point> chunk = chunks.get(key);
+      if (chunk == null) {
+        chunk = new ArrayList<Point>();
+        chunks.put(key, chunk);
+      } else if (chunk.contains(point)) {
+        return;
+      }
+      chunk.add(point);
+      if (size == 0) {
+        minimumX = maximumX = chunkX;
+        minimumY = maximumY = chunkY;
+      } else {
+        minimumX = Math.min(minimumX, chunkX);
+        maximumX = Math.max(maximumX, chunkX);
+        minimumY = Math.min(minimumY, chunkY);
+        maximumY = Math.max(maximumY, chunkY);
+      }
+      size++;
+    }
+
+    /**
+     * Visits the rings of chunks around the origin, from the inside out, until no unvisited chunk can hold a closer
+     * Point. A Point in ring r is at least (r - 1) * CHUNK_SIDE + 1 away from the origin.
+     */
+    Point findNearest(Point origin) {
+      int chunkX = toChunkCoordinate(origin.getX());
+      int chunkY = toChunkCoordinate(origin.getY());
+      int horizontalRings = Math.max(chunkX - minimumX, maximumX - chunkX);
+      int lastRing = Math.max(horizontalRings, Math.max(chunkY - minimumY, maximumY - chunkY));
+      Point nearest = null;
+      int nearestDistance = Integer.MAX_VALUE;
+      for (int ring = 0; ring <= lastRing; ring++) {
+        if (nearest != null && nearestDistance <= (ring - 1) * CHUNK_SIDE) {
+          break;
+        }
+        for (int x = chunkX - ring; x <= chunkX + ring; x++) {
+          // The top and bottom rows of the ring are complete, the other rows only have their first and last chunks.
+          int step = (x == chunkX - ring || x == chunkX + ring || ring == 0) ? 1 : 2 * ring;
+          for (int y = chunkY - ring; y <= chunkY + ring; y += step) {
+            List<Point> chunk = chunks.get(new Point(x, y));
+            if (chunk != null) {
+              for (Point point : chunk) {
+                int pointDistance = distance(origin, point);
+                if (pointDistance < nearestDistance) {
+                  nearest = point;
+                  nearestDistance = pointDistance;
+                }
+              }
+            }
+          }
+        }
+      }
+      return nearest;
+    }
+
+    List<Point> findWithin(Point origin, int radius) {
+      List<Point> result = new ArrayList<Point>();
+      int firstX = Math.max(minimumX, toChunkCoordinate(origin.getX() - radius));
+      int lastX = Math.min(maximumX, toChunkCoordinate(origin.getX() + radius));
+      int firstY = Math.max(minimumY, toChunkCoordinate(origin.getY() - radius));
+      int lastY = Math.min(maximumY, toChunkCoordinate(origin.getY() + radius));
+      for (int x = firstX; x <= lastX; x++) {
+        for (int y = firstY; y <= lastY; y++) {
+          List<Point> chunk = chunks.get(new Point(x, y));
+          if (chunk != null) {
+            for (Point point : chunk) {
+              if (distance(origin, point) <= radius) {
+                result.add(point);
+              }
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+  }
+
+}
@@ -42,17 +42,32 @@ class Spawner implements Serializable {
     lastChange = getWorldCreationTime();
   }
 
+  long getLastChange() {
+    return lastChange;
+  }
+
+  void setLastChange(long lastChange) {
+    this.lastChange = lastChange;
+  }
+
   /**
    * Refresh the spawner, spawning all creatures that should have spawned since the last spawn.
    *
+   * <p>The number of spawns and the new time of the last change are computed directly from the elapsed time, so
+   * catching up after a long absence costs the same as a regular refresh, apart from creating the creatures.
+   *
    * <p>Only spawners in locations whose creatures are visible to the player should be refreshed.
    */
   public void refresh() {
-    long worldTime = getWorldTime();
-    while (worldTime - lastChange >= spawnDelay && location.getCreatureCount(id) < populationLimit) {
-      location.addCreature(CreatureFactory.makeCreature(id));
-      // Simulate that the creature was spawned just when it should have been.
-      lastChange += spawnDelay;
+    long elapsedTime = getWorldTime() - lastChange;
+    int vacancies = populationLimit - location.getCreatureCount(id);
+    if (elapsedTime >= spawnDelay && vacancies > 0) {
+      int spawns = (int) Math.min(elapsedTime / spawnDelay, vacancies);
+      for (int i = 0; i < spawns; i++) {
+        location.addCreature(CreatureFactory.makeCreature(id));
+      }
+      // Simulate that the creatures were spawned just when they should have been.
+      lastChange += (long) spawns * spawnDelay;
     }
   }
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.game;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache of prebuilt views of a Location.
+ *
+ * <p>Views are stored together with the version of the Location they were built from. Once the Location changes, all
+ * views built from the previous version are discarded.
+ */
+public final class ViewCache {
+
+  private final Map<Object, DungeonStringBuilder> views = new HashMap<Object, DungeonStringBuilder>();
+  private int version;
+
+  /**
+   * Returns the view stored under the specified key, if it was built from the specified version.
+   *
+   * @param key the key of the view, not null
+   * @param version the current version of the Location
+   * @return a DungeonStringBuilder or null
+   */
+  @Nullable
+  public DungeonStringBuilder get(@NotNull Object key, int version) {
+    if (this.version != version) {
+      return null;
+    }
+    return views.get(key);
+  }
+
+  /**
+   * Stores a view under the specified key.
+   *
+   * <p>The view should not be modified after this method is called, as it will be shared by all future writes.
+   *
+   * @param key the key of the view, not null
+   * @param version the version of the Location from which the view was built
+   * @param view the view, not null
+   */
+  public void put(@NotNull Object key, int version, @NotNull DungeonStringBuilder view) {
+    if (this.version != version) {
+      views.clear();
+      this.version = version;
+    }
+    // Flush the builder now so that reading it later never modifies it.
+    view.toColoredStringList();
+    views.put(key, view);
+  }
+
+  @Override
+  public String toString() {
+    return "ViewCache{" + "views=" + views.size() + ", version=" + version + '}';
+  }
+
+}
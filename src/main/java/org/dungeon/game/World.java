@@ -22,22 +22,45 @@ import org.dungeon.date.DungeonTimeUnit;
 import org.dungeon.entity.creatures.Hero;
 import org.dungeon.io.DungeonLogger;
 import org.dungeon.stats.WorldStatistics;
+import org.dungeon.util.DungeonMath;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 public class World implements Serializable {
 
+  /**
+   * The side of the square chunks in which Locations are saved.
+   */
+  public static final int CHUNK_SIDE = 8;
+
   private final WorldGenerator generator;
 
-  private final Map<Point, Location> locations;
+  // Locations are not serialized with the World, but chunk by chunk through getChunk and addChunk.
+  private transient Map<Point, Location> locations;
+  private transient Map<Point, HashMap<Point, Location>> chunks;
+  // The chunks of a loaded World that were not decoded yet. They are decoded when one of their Points is accessed.
+  private transient Map<Point, EncodedChunk> encodedChunks;
+  // The modification count at which each chunk last changed, for the chunks that changed since the World was loaded.
+  private transient Map<Point, Long> chunkModifications;
+  // How many times a chunk of this World changed since it was loaded.
+  private transient long modificationCount;
+  private final SpatialIndex locationIndex = new SpatialIndex();
 
   private final WorldStatistics worldStatistics;
   private final Date worldCreationDate = new Date(1, 1, 1);
-  private Date worldDate = new Date(2055, 6, 2, 6, 10, 0);
+  // The date on which every game starts.
+  private static final Date START_DATE = new Date(2055, 6, 2, 6, 10, 0);
+  private Date worldDate = START_DATE;
 
   /**
    * Creates a new World.
@@ -46,7 +69,6 @@ public class World implements Serializable {
    */
   public World(WorldStatistics statistics) {
     worldStatistics = statistics;
-    locations = new HashMap<Point, Location>();
     generator = new WorldGenerator(this);
   }
 
@@ -54,15 +76,164 @@ public class World implements Serializable {
     return worldCreationDate;
   }
 
+  public Date getStartDate() {
+    return START_DATE;
+  }
+
   public Date getWorldDate() {
     return worldDate;
   }
 
   public void addLocation(Location locationObject, Point coordinates) {
-    locations.put(coordinates, locationObject);
+    putLocation(locationObject, coordinates);
+    markDirty(coordinates);
+    locationIndex.add(locationObject.getId(), coordinates);
     worldStatistics.addLocation(locationObject.getName().getSingular());
   }
 
+  private void putLocation(Location location, Point point) {
+    if (locations == null) {
+      locations = new HashMap<Point, Location>();
+      chunks = new HashMap<Point, HashMap<Point, Location>>();
+    }
+    locations.put(point, location);
+    Point chunk = getChunkOf(point);
+    HashMap<Point, Location> chunkLocations = chunks.get(chunk);
+    if (chunkLocations == null) {
+      chunkLocations = new HashMap<Point, Location>();
+      chunks.put(chunk, chunkLocations);
+    }
+    chunkLocations.put(point, location);
+  }
+
+  /**
+   * Returns the coordinates of the chunk that contains the specified Point.
+   */
+  public static Point getChunkOf(Point point) {
+    int chunkX = DungeonMath.floorDivide(point.getX(), CHUNK_SIDE);
+    int chunkY = DungeonMath.floorDivide(point.getY(), CHUNK_SIDE);
+    return new Point(chunkX, chunkY);
+  }
+
+  /**
+   * Returns the coordinates of all chunks that have at least one Location, whether they were decoded or not.
+   */
+  public Set<Point> getChunks() {
+    if (encodedChunks == null || encodedChunks.isEmpty()) {
+      return Collections.unmodifiableSet(chunks.keySet());
+    }
+    Set<Point> allChunks = new HashSet<Point>(chunks.keySet());
+    allChunks.addAll(encodedChunks.keySet());
+    return allChunks;
+  }
+
+  /**
+   * Returns the Locations of a chunk, indexed by their Points. The returned map should only be read or serialized.
+   *
+   * @param chunk the coordinates of a chunk, as returned by getChunkOf
+   * @return a map from Points to Locations, or null if the chunk has no Locations or was not decoded yet
+   */
+  public HashMap<Point, Location> getChunk(Point chunk) {
+    return chunks == null ? null : chunks.get(chunk);
+  }
+
+  /**
+   * Returns a chunk that was not decoded yet, or null if there is no such chunk.
+   */
+  public EncodedChunk getEncodedChunk(Point chunk) {
+    return encodedChunks == null ? null : encodedChunks.get(chunk);
+  }
+
+  /**
+   * Adds a chunk of a saved game that is only decoded when one of its Locations is accessed. This keeps loading fast no
+   * matter how much of the World was explored.
+   *
+   * @param chunk the coordinates of the chunk
+   * @param encodedChunk the EncodedChunk
+   */
+  public void addEncodedChunk(Point chunk, EncodedChunk encodedChunk) {
+    if (encodedChunks == null) {
+      encodedChunks = new HashMap<Point, EncodedChunk>();
+    }
+    encodedChunks.put(chunk, encodedChunk);
+  }
+
+  /**
+   * Decodes the chunk of the specified Point, if it was not decoded yet.
+   *
+   * @return true if a chunk was decoded
+   */
+  private boolean decodeChunkOf(Point point) {
+    if (encodedChunks == null || encodedChunks.isEmpty()) {
+      return false;
+    }
+    Point chunk = getChunkOf(point);
+    EncodedChunk encodedChunk = encodedChunks.remove(chunk);
+    if (encodedChunk == null) {
+      return false;
+    }
+    try {
+      addChunk(encodedChunk.decode());
+      return true;
+    } catch (IOException bad) {
+      // The Locations of the chunk will be generated again.
+      DungeonLogger.warning("Could not decode the chunk at " + chunk + ": " + bad.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Adds the Locations of a chunk that was saved separately from this World.
+   *
+   * @param chunk a map from Points to Locations, as returned by getChunk
+   */
+  public void addChunk(Map<Point, Location> chunk) {
+    for (Entry<Point, Location> entry : chunk.entrySet()) {
+      entry.getValue().setWorld(this);
+      putLocation(entry.getValue(), entry.getKey());
+    }
+  }
+
+  /**
+   * Records that the Location at the specified Point changed, so that its chunk is written by the next save.
+   */
+  public void markDirty(Point point) {
+    if (chunkModifications == null) {
+      chunkModifications = new HashMap<Point, Long>();
+    }
+    chunkModifications.put(getChunkOf(point), ++modificationCount);
+  }
+
+  /**
+   * Returns how many times a chunk of this World changed since it was loaded. Saves remember this count so that the
+   * next save to the same file only writes the chunks that changed after it.
+   */
+  public long getModificationCount() {
+    return modificationCount;
+  }
+
+  /**
+   * Returns the chunks that changed after the World had the specified modification count.
+   */
+  public Set<Point> getChunksModifiedAfter(long count) {
+    Set<Point> modifiedChunks = new HashSet<Point>();
+    if (chunkModifications != null) {
+      for (Entry<Point, Long> entry : chunkModifications.entrySet()) {
+        if (entry.getValue() > count) {
+          modifiedChunks.add(entry.getKey());
+        }
+      }
+    }
+    return modifiedChunks;
+  }
+
+  /**
+   * Returns the SpatialIndex of the Points of all generated Locations, indexed by the Ids of their presets.
+   */
+  public SpatialIndex getLocationIndex() {
+    return locationIndex;
+  }
+
   /**
    * Moves the hero from a location to another.
    *
@@ -75,13 +246,18 @@ public class World implements Serializable {
     Point heroNewPosition = new Point(heroOldPosition, dir);
     Game.getGameState().setHeroPosition(heroNewPosition);
     locations.get(heroOldPosition).removeCreature(hero);
-    Location heroNewLocation = locations.get(heroNewPosition);
+    markDirty(heroOldPosition);
+    Location heroNewLocation = getLocation(heroNewPosition);
+    markDirty(heroNewPosition);
     heroNewLocation.addCreature(hero);
     return heroNewLocation;
   }
 
   public boolean hasLocation(Point point) {
-    return locations.containsKey(point);
+    if (locations != null && locations.containsKey(point)) {
+      return true;
+    }
+    return decodeChunkOf(point) && locations.containsKey(point);
   }
 
   /**
@@ -99,6 +275,44 @@ public class World implements Serializable {
     return locations.get(point);
   }
 
+  /**
+   * Compacts all Locations of this World. See Location.compact.
+   *
+   * @return how many Items were removed from the ground
+   */
+  public int compact() {
+    return compact(locations);
+  }
+
+  /**
+   * Compacts the Locations of the specified chunks. See Location.compact.
+   *
+   * @param chunks the coordinates of the chunks
+   * @return how many Items were removed from the ground
+   */
+  public int compact(Collection<Point> chunks) {
+    int removedItems = 0;
+    for (Point chunk : chunks) {
+      HashMap<Point, Location> chunkLocations = getChunk(chunk);
+      if (chunkLocations != null) {
+        removedItems += compact(chunkLocations);
+      }
+    }
+    return removedItems;
+  }
+
+  private int compact(Map<Point, Location> locations) {
+    int removedItems = 0;
+    for (Entry<Point, Location> entry : locations.entrySet()) {
+      int removedHere = entry.getValue().compact();
+      if (removedHere != 0) {
+        markDirty(entry.getKey());
+        removedItems += removedHere;
+      }
+    }
+    return removedItems;
+  }
+
   /**
    * Returns the PartOfDay constant that represents the current part of the day.
    */
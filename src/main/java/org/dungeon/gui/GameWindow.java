@@ -19,7 +19,6 @@ package org.dungeon.gui;
 
 import org.dungeon.commands.CommandHistory;
 import org.dungeon.commands.IssuedCommand;
-import org.dungeon.game.ColoredString;
 import org.dungeon.game.Game;
 import org.dungeon.game.GameState;
 import org.dungeon.game.Writable;
@@ -30,10 +29,8 @@ import org.dungeon.util.Constants;
 import org.jetbrains.annotations.NotNull;
 
 import java.awt.Color;
-import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontFormatException;
-import java.awt.FontMetrics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
@@ -55,7 +52,6 @@ import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
-import javax.swing.JTextPane;
 import javax.swing.KeyStroke;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
@@ -63,10 +59,6 @@ import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.WindowConstants;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.SimpleAttributeSet;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 
 public class GameWindow extends JFrame {
 
@@ -83,19 +75,40 @@ public class GameWindow extends JFrame {
    * The border, in pixels.
    */
   private static final int MARGIN = 5;
-  private final SimpleAttributeSet attributeSet = new SimpleAttributeSet();
-  private final StyledDocument document;
+  private static final String SCROLLBACK_PROPERTY = "dungeon.scrollback";
+  private static final int DEFAULT_SCROLLBACK = 1000;
+  /**
+   * How many lines the text pane keeps, read from the system property {@code dungeon.scrollback}. Zero keeps all lines.
+   *
+   * <p>Once the text pane has this many lines, each new line replaces the oldest one.
+   */
+  private static final int SCROLLBACK = readScrollback();
   private JTextField textField;
-  private JTextPane textPane;
+  private TerminalPane textPane;
 
   private boolean acceptingNextCommand;
 
   public GameWindow() {
     initComponents();
-    document = textPane.getStyledDocument();
     setVisible(true);
   }
 
+  private static int readScrollback() {
+    String value = System.getProperty(SCROLLBACK_PROPERTY);
+    if (value != null) {
+      try {
+        int lines = Integer.parseInt(value.trim());
+        if (lines >= 0) {
+          return lines;
+        }
+      } catch (NumberFormatException ignored) {
+        // Fall to the warning.
+      }
+      DungeonLogger.warning("Ignored invalid value of " + SCROLLBACK_PROPERTY + ": " + value + ".");
+    }
+    return DEFAULT_SCROLLBACK;
+  }
+
   /**
    * Returns the monospaced font used by the game interface.
    */
@@ -151,15 +164,11 @@ public class GameWindow extends JFrame {
     JPanel panel = new JPanel(new GridBagLayout());
     panel.setBackground(SharedConstants.MARGIN_COLOR);
 
-    textPane = new JTextPane();
+    textPane = new TerminalPane(FONT, COLS, ROWS, SCROLLBACK);
     textField = new JTextField();
 
     JScrollPane scrollPane = new JScrollPane();
 
-    textPane.setEditable(false);
-    textPane.setBackground(SharedConstants.INSIDE_COLOR);
-    textPane.setFont(FONT);
-
     scrollPane.setViewportView(textPane);
     scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS);
     scrollPane.setBorder(BorderFactory.createEmptyBorder());
@@ -228,23 +237,10 @@ public class GameWindow extends JFrame {
    * Resizes and centers the frame.
    */
   private void resize() {
-    textPane.setPreferredSize(calculateTextPaneSize());
     pack();
     setLocationRelativeTo(null);
   }
 
-  /**
-   * Evaluates the preferred size for the TextPane.
-   *
-   * @return a Dimension with the preferred TextPane dimensions.
-   */
-  private Dimension calculateTextPaneSize() {
-    FontMetrics fontMetrics = getFontMetrics(FONT);
-    int width = fontMetrics.charWidth(' ') * (COLS + 1); // columns + magic constant
-    int height = fontMetrics.getHeight() * ROWS;
-    return new Dimension(width, height);
-  }
-
   /**
    * The method that gets called when the player presses ENTER.
    */
@@ -340,19 +336,11 @@ public class GameWindow extends JFrame {
    * @param specifications a TextPaneWritingSpecifications object
    */
   private void writeToTextPane(Writable writable, TextPaneWritingSpecifications specifications) {
-    for (ColoredString coloredString : writable.toColoredStringList()) {
-      StyleConstants.setForeground(attributeSet, coloredString.getColor());
-      try {
-        document.insertString(document.getLength(), coloredString.getString(), attributeSet);
-      } catch (BadLocationException warn) {
-        DungeonLogger.warning("insertString resulted in a BadLocationException.");
-      }
-    }
-    textPane.setCaretPosition(specifications.shouldScrollDown() ? document.getLength() : 0);
+    textPane.append(writable.toColoredStringList(), specifications.shouldScrollDown());
   }
 
   /**
-   * Clears the TextPane by erasing everything in the local Document.
+   * Clears the TextPane by erasing all of its lines.
    *
    * This schedules the operation to be ran on the EDT, so it is safe to invoke this on any thread.
    */
@@ -360,10 +348,7 @@ public class GameWindow extends JFrame {
     SwingUtilities.invokeLater(new Runnable() {
       @Override
       public void run() {
-        try {
-          document.remove(0, document.getLength());
-        } catch (BadLocationException ignored) { // Never happens.
-        }
+        textPane.clear();
       }
     });
   }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.gui;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Color;
+
+/**
+ * The lines of text shown by a TerminalPane, kept in a ring buffer.
+ *
+ * <p>Text is wrapped at the column count, breaking lines after the last space when there is one. Once the buffer holds
+ * as many lines as its capacity, each new line reuses the oldest one. A capacity of zero lets the buffer grow.
+ *
+ * <p>The buffer remembers the first cell that changed since the last call to {@code markClean}, so that only the cells
+ * from that one on need to be redrawn.
+ */
+final class LineBuffer {
+
+  private static final int INITIAL_UNLIMITED_CAPACITY = 64;
+
+  private final int columns;
+  private final boolean limited;
+  private Line[] lines;
+  private int first;
+  private int size;
+  private int dirtyRow;
+  private int dirtyColumn;
+  private long droppedLines;
+
+  /**
+   * Constructs an empty LineBuffer.
+   *
+   * @param columns the number of columns of the lines, positive
+   * @param capacity the maximum number of lines, or zero to keep all lines
+   */
+  LineBuffer(int columns, int capacity) {
+    if (columns <= 0) {
+      throw new IllegalArgumentException("columns should be positive.");
+    }
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity should be nonnegative.");
+    }
+    this.columns = columns;
+    this.limited = capacity != 0;
+    this.lines = new Line[limited ? capacity : INITIAL_UNLIMITED_CAPACITY];
+    clear();
+  }
+
+  /**
+   * Removes all lines, leaving a single empty line.
+   */
+  void clear() {
+    first = 0;
+    size = 0;
+    addLine();
+    markDirty(0, 0);
+  }
+
+  /**
+   * Returns how many lines this buffer holds. There is always at least one line, the one text is appended to.
+   */
+  int size() {
+    return size;
+  }
+
+  int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns the line at the specified row, counting from the oldest line.
+   */
+  @NotNull
+  Line get(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("row " + row + " is out of bounds.");
+    }
+    return lines[(first + row) % lines.length];
+  }
+
+  /**
+   * Returns how many of the oldest lines were reused for new lines since this buffer was constructed.
+   */
+  long getDroppedLines() {
+    return droppedLines;
+  }
+
+  /**
+   * Returns the text between two cells, joining lines with newlines.
+   *
+   * @param startRow the row of the first cell
+   * @param startColumn the column of the first cell
+   * @param endRow the row of the last cell
+   * @param endColumn the column after the last cell, which may be past the end of its line
+   */
+  @NotNull
+  String getText(int startRow, int startColumn, int endRow, int endColumn) {
+    StringBuilder builder = new StringBuilder();
+    for (int row = startRow; row <= endRow; row++) {
+      Line line = get(row);
+      int start = row == startRow ? Math.min(startColumn, line.length) : 0;
+      int end = row == endRow ? Math.min(endColumn, line.length) : line.length;
+      if (end > start) {
+        builder.append(line.symbols, start, end - start);
+      }
+      if (row != endRow) {
+        builder.append('\n');
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Appends a String of the specified Color. Each newline in the String starts a new line.
+   */
+  void append(@NotNull String string, @NotNull Color color) {
+    for (int i = 0; i < string.length(); i++) {
+      char character = string.charAt(i);
+      if (character == '\n') {
+        addLine();
+      } else {
+        Line line = get(size - 1);
+        if (line.length == columns) {
+          if (character == ' ') {
+            // The space that would wrap the line is not carried over to the next one.
+            addLine();
+            continue;
+          }
+          line = wrap(line);
+        }
+        markDirty(size - 1, line.length);
+        line.symbols[line.length] = character;
+        line.colors[line.length] = color;
+        line.length++;
+      }
+    }
+  }
+
+  /**
+   * Moves the last word of a full line to a new line and returns the new line. Words as long as a line are broken.
+   */
+  private Line wrap(Line line) {
+    int lastSpace = line.length - 1;
+    while (lastSpace >= 0 && line.symbols[lastSpace] != ' ') {
+      lastSpace--;
+    }
+    int wordStart = lastSpace + 1;
+    if (wordStart == 0) {
+      addLine();
+      return get(size - 1);
+    }
+    int wordLength = line.length - wordStart;
+    markDirty(size - 1, wordStart);
+    line.length = wordStart;
+    addLine();
+    // With a capacity of one line, the new line is the old one, which System.arraycopy handles.
+    Line next = get(size - 1);
+    System.arraycopy(line.symbols, wordStart, next.symbols, 0, wordLength);
+    System.arraycopy(line.colors, wordStart, next.colors, 0, wordLength);
+    next.length = wordLength;
+    return next;
+  }
+
+  private void addLine() {
+    if (size == lines.length) {
+      if (limited) {
+        // Reuse the oldest line. Every line moves up a row.
+        Line oldest = lines[first];
+        oldest.length = 0;
+        first = (first + 1) % lines.length;
+        droppedLines++;
+        markDirty(0, 0);
+        return;
+      }
+      Line[] larger = new Line[lines.length * 2];
+      for (int i = 0; i < size; i++) {
+        larger[i] = get(i);
+      }
+      lines = larger;
+      first = 0;
+    }
+    int index = (first + size) % lines.length;
+    if (lines[index] == null) {
+      lines[index] = new Line(columns);
+    }
+    lines[index].length = 0;
+    size++;
+    markDirty(size - 1, 0);
+  }
+
+  private void markDirty(int row, int column) {
+    if (dirtyRow == -1 || row < dirtyRow || (row == dirtyRow && column < dirtyColumn)) {
+      dirtyRow = row;
+      dirtyColumn = column;
+    }
+  }
+
+  /**
+   * Returns the row of the first cell that changed since the last call to markClean, or -1 if no cell changed.
+   */
+  int getDirtyRow() {
+    return dirtyRow;
+  }
+
+  /**
+   * Returns the column of the first cell that changed since the last call to markClean.
+   */
+  int getDirtyColumn() {
+    return dirtyColumn;
+  }
+
+  void markClean() {
+    dirtyRow = -1;
+    dirtyColumn = 0;
+  }
+
+  /**
+   * A line of at most as many cells as there are columns, each one holding a symbol and its Color.
+   */
+  static final class Line {
+
+    private final char[] symbols;
+    private final Color[] colors;
+    private int length;
+
+    private Line(int columns) {
+      symbols = new char[columns];
+      colors = new Color[columns];
+    }
+
+    int getLength() {
+      return length;
+    }
+
+    char getSymbol(int column) {
+      return symbols[column];
+    }
+
+    Color getColor(int column) {
+      return colors[column];
+    }
+
+  }
+
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.gui;
+
+import org.dungeon.game.ColoredString;
+import org.dungeon.io.DungeonLogger;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.KeyStroke;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+/**
+ * A grid of monospaced cells that shows the text written by the game.
+ *
+ * <p>Its lines are kept in a LineBuffer. Writing only repaints the cells that changed, and each cell is painted by
+ * copying a cached image of its glyph, so redrawing the map does not lay out any text. The images are drawn at the
+ * scale of the screen, so that glyphs stay sharp on high density displays.
+ *
+ * <p>Text can be selected with the mouse and copied to the system clipboard with Ctrl+C.
+ *
+ * <p>This component should only be used on the Event Dispatch Thread.
+ */
+final class TerminalPane extends JComponent implements Scrollable {
+
+  private static final Color SELECTION_COLOR = new Color(255, 255, 255, 64);
+
+  private final LineBuffer buffer;
+  private final int rows;
+  private final int cellWidth;
+  private final int cellHeight;
+  private final int ascent;
+  // Half a cell on each side, so that glyphs do not touch the borders.
+  private final int margin;
+  private final Map<Color, Map<Character, Image>> glyphs = new HashMap<Color, Map<Character, Image>>();
+  // The scale of the screen the cached glyphs were drawn for.
+  private double scaleX = 1;
+  private double scaleY = 1;
+  // The selection goes from the anchor, where the mouse was pressed, to the caret, where it is now.
+  // Columns are the boundaries between cells, so the selection is empty when the anchor and the caret are equal.
+  private int anchorRow;
+  private int anchorColumn;
+  private int caretRow;
+  private int caretColumn;
+
+  /**
+   * Constructs an empty TerminalPane.
+   *
+   * @param font a monospaced Font, not null
+   * @param columns the number of columns, positive
+   * @param rows the number of rows visible at once, positive
+   * @param scrollback the maximum number of lines kept, or zero to keep all lines
+   */
+  TerminalPane(@NotNull Font font, int columns, int rows, int scrollback) {
+    this.buffer = new LineBuffer(columns, scrollback);
+    this.rows = rows;
+    FontMetrics fontMetrics = getFontMetrics(font);
+    cellWidth = fontMetrics.charWidth(' ');
+    cellHeight = fontMetrics.getHeight();
+    ascent = fontMetrics.getAscent();
+    margin = cellWidth / 2;
+    setFont(font);
+    setOpaque(true);
+    setAutoscrolls(true);
+    MouseAdapter selectionListener = new MouseAdapter() {
+      @Override
+      public void mousePressed(MouseEvent e) {
+        requestFocusInWindow();
+        anchorRow = caretRow = getRowAt(e.getY());
+        anchorColumn = caretColumn = getColumnAt(e.getX());
+        repaint();
+      }
+
+      @Override
+      public void mouseDragged(MouseEvent e) {
+        caretRow = getRowAt(e.getY());
+        caretColumn = getColumnAt(e.getX());
+        scrollRectToVisible(new Rectangle(e.getX(), e.getY(), 1, 1));
+        repaint();
+      }
+    };
+    addMouseListener(selectionListener);
+    addMouseMotionListener(selectionListener);
+    getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_C, InputEvent.CTRL_DOWN_MASK), "COPY");
+    getActionMap().put("COPY", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        copySelection();
+      }
+    });
+  }
+
+  /**
+   * Appends ColoredStrings to the last line.
+   *
+   * @param coloredStrings the ColoredStrings, not null
+   * @param scrollDown if true, scrolls to the last line; otherwise, scrolls to the first line
+   */
+  void append(@NotNull List<ColoredString> coloredStrings, boolean scrollDown) {
+    long droppedLines = buffer.getDroppedLines();
+    for (ColoredString coloredString : coloredStrings) {
+      buffer.append(coloredString.getString(), coloredString.getColor());
+    }
+    // The selected text moved up with the lines that hold it.
+    int shift = (int) Math.min(buffer.getDroppedLines() - droppedLines, buffer.size());
+    if (shift != 0 && hasSelection()) {
+      moveSelectionUp(shift);
+    }
+    update(scrollDown);
+  }
+
+  /**
+   * Removes all the text.
+   */
+  void clear() {
+    buffer.clear();
+    clearSelection();
+    update(false);
+  }
+
+  private boolean hasSelection() {
+    return anchorRow != caretRow || anchorColumn != caretColumn;
+  }
+
+  private void clearSelection() {
+    anchorRow = caretRow = 0;
+    anchorColumn = caretColumn = 0;
+  }
+
+  /**
+   * Moves the selection up some rows. The part of it that was in the dropped lines is lost.
+   */
+  private void moveSelectionUp(int shift) {
+    anchorRow -= shift;
+    caretRow -= shift;
+    if (anchorRow < 0 && caretRow < 0) {
+      clearSelection();
+    } else if (anchorRow < 0) {
+      anchorRow = anchorColumn = 0;
+    } else if (caretRow < 0) {
+      caretRow = caretColumn = 0;
+    }
+    repaint();
+  }
+
+  /**
+   * Returns whether the anchor comes after the caret.
+   */
+  private boolean isSelectionBackwards() {
+    return anchorRow > caretRow || (anchorRow == caretRow && anchorColumn > caretColumn);
+  }
+
+  /**
+   * Copies the selected text to the system clipboard. Does nothing if there is no selection.
+   */
+  private void copySelection() {
+    if (!hasSelection()) {
+      return;
+    }
+    String text;
+    if (isSelectionBackwards()) {
+      text = buffer.getText(caretRow, caretColumn, anchorRow, anchorColumn);
+    } else {
+      text = buffer.getText(anchorRow, anchorColumn, caretRow, caretColumn);
+    }
+    StringSelection selection = new StringSelection(text);
+    try {
+      Toolkit.getDefaultToolkit().getSystemClipboard().setContents(selection, selection);
+    } catch (IllegalStateException unavailable) {
+      DungeonLogger.warning("Could not copy the selection because the clipboard is unavailable.");
+    }
+  }
+
+  private int getRowAt(int y) {
+    return Math.max(0, Math.min(buffer.size() - 1, y / cellHeight));
+  }
+
+  /**
+   * Returns the boundary between cells nearest to an x coordinate.
+   */
+  private int getColumnAt(int x) {
+    return Math.max(0, Math.min(buffer.getColumns(), (x - margin + cellWidth / 2) / cellWidth));
+  }
+
+  /**
+   * Resizes this component to fit its lines, scrolls and repaints the cells that changed.
+   */
+  private void update(boolean scrollDown) {
+    if (getParent() instanceof JViewport) {
+      JViewport viewport = (JViewport) getParent();
+      Dimension extent = viewport.getExtentSize();
+      int height = Math.max(getPreferredSize().height, extent.height);
+      if (getHeight() != height) {
+        viewport.setViewSize(new Dimension(extent.width, height));
+      }
+      viewport.setViewPosition(new Point(0, scrollDown ? height - extent.height : 0));
+    }
+    int dirtyRow = buffer.getDirtyRow();
+    if (dirtyRow != -1) {
+      int x = margin + buffer.getDirtyColumn() * cellWidth;
+      int y = dirtyRow * cellHeight;
+      // The rest of the first dirty row and every row below it.
+      repaint(x, y, getWidth() - x, cellHeight);
+      repaint(0, y + cellHeight, getWidth(), getHeight() - y - cellHeight);
+      buffer.markClean();
+    }
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    updateScale(((Graphics2D) g).getDeviceConfiguration());
+    g.setColor(SharedConstants.INSIDE_COLOR);
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+    int firstRow = Math.max(0, clip.y / cellHeight);
+    int lastRow = Math.min(buffer.size() - 1, (clip.y + clip.height - 1) / cellHeight);
+    int firstColumn = Math.max(0, (clip.x - margin) / cellWidth);
+    int lastColumn = Math.min(buffer.getColumns() - 1, (clip.x + clip.width - 1 - margin) / cellWidth);
+    for (int row = firstRow; row <= lastRow; row++) {
+      LineBuffer.Line line = buffer.get(row);
+      int end = Math.min(line.getLength() - 1, lastColumn);
+      for (int column = firstColumn; column <= end; column++) {
+        char symbol = line.getSymbol(column);
+        // The background was already painted.
+        if (symbol != ' ') {
+          Image glyph = getGlyph(symbol, line.getColor(column));
+          g.drawImage(glyph, margin + column * cellWidth, row * cellHeight, cellWidth, cellHeight, null);
+        }
+      }
+    }
+    if (hasSelection()) {
+      paintSelection(g, firstRow, lastRow);
+    }
+  }
+
+  /**
+   * Paints a translucent highlight over the selected cells of some rows.
+   */
+  private void paintSelection(Graphics g, int firstRow, int lastRow) {
+    boolean backwards = isSelectionBackwards();
+    int startRow = backwards ? caretRow : anchorRow;
+    int startColumn = backwards ? caretColumn : anchorColumn;
+    int endRow = backwards ? anchorRow : caretRow;
+    int endColumn = backwards ? anchorColumn : caretColumn;
+    g.setColor(SELECTION_COLOR);
+    for (int row = Math.max(firstRow, startRow); row <= Math.min(lastRow, endRow); row++) {
+      int start = row == startRow ? startColumn : 0;
+      int end = row == endRow ? endColumn : buffer.getColumns();
+      g.fillRect(margin + start * cellWidth, row * cellHeight, (end - start) * cellWidth, cellHeight);
+    }
+  }
+
+  /**
+   * Discards the cached glyphs if the scale of the screen changed, so that they are drawn again at the new scale.
+   */
+  private void updateScale(GraphicsConfiguration configuration) {
+    AffineTransform transform = configuration.getDefaultTransform();
+    if (transform.getScaleX() != scaleX || transform.getScaleY() != scaleY) {
+      scaleX = transform.getScaleX();
+      scaleY = transform.getScaleY();
+      glyphs.clear();
+    }
+  }
+
+  /**
+   * Returns the image of a cell that holds the specified symbol in the specified Color, drawing it the first time.
+   */
+  private Image getGlyph(char symbol, Color color) {
+    Map<Character, Image> glyphsOfColor = glyphs.get(color);
+    if (glyphsOfColor == null) {
+      glyphsOfColor = new HashMap<Character, Image>();
+      glyphs.put(color, glyphsOfColor);
+    }
+    Image glyph = glyphsOfColor.get(symbol);
+    if (glyph == null) {
+      glyph = drawGlyph(symbol, color);
+      glyphsOfColor.put(symbol, glyph);
+    }
+    return glyph;
+  }
+
+  /**
+   * Draws the image of a cell at the scale of the screen, so that it has a pixel for each pixel of the screen.
+   */
+  private Image drawGlyph(char symbol, Color color) {
+    int width = (int) Math.ceil(cellWidth * scaleX);
+    int height = (int) Math.ceil(cellHeight * scaleY);
+    GraphicsConfiguration configuration = getGraphicsConfiguration();
+    BufferedImage image;
+    if (configuration != null) {
+      image = configuration.createCompatibleImage(width, height);
+    } else {
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+    Graphics2D graphics = image.createGraphics();
+    try {
+      // Antialias the glyphs as the desktop does, like Swing text components do.
+      Object desktopHints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+      if (desktopHints instanceof Map) {
+        graphics.addRenderingHints((Map<?, ?>) desktopHints);
+      } else {
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      }
+      graphics.setColor(SharedConstants.INSIDE_COLOR);
+      graphics.fillRect(0, 0, width, height);
+      graphics.scale(scaleX, scaleY);
+      graphics.setFont(getFont());
+      graphics.setColor(color);
+      graphics.drawString(String.valueOf(symbol), 0, ascent);
+    } finally {
+      graphics.dispose();
+    }
+    return image;
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    return new Dimension(cellWidth * buffer.getColumns() + 2 * margin, cellHeight * buffer.size());
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return new Dimension(cellWidth * buffer.getColumns() + 2 * margin, cellHeight * rows);
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.VERTICAL ? cellHeight : cellWidth;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    if (orientation == SwingConstants.VERTICAL) {
+      return Math.max(cellHeight, visibleRect.height - cellHeight);
+    }
+    return visibleRect.width;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    // Fill the viewport while there are fewer lines than visible rows.
+    return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.io;
+
+import static org.dungeon.date.DungeonTimeUnit.HOUR;
+import static org.dungeon.date.DungeonTimeUnit.SECOND;
+
+import org.dungeon.game.GameState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the game at the end of a turn once enough real time or in-game time passed since the game was last saved.
+ *
+ * <p>The intervals, in seconds, are read from the system properties {@code dungeon.autosave.interval} (real time) and
+ * {@code dungeon.autosave.gameInterval} (in-game time). An interval of zero is never reached.
+ */
+public final class Autosaver {
+
+  private static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toSeconds(5);
+  private static final long DEFAULT_GAME_INTERVAL = 6 * HOUR.as(SECOND);
+
+  private static long interval = readInterval("dungeon.autosave.interval", DEFAULT_INTERVAL);
+  private static long gameInterval = readInterval("dungeon.autosave.gameInterval", DEFAULT_GAME_INTERVAL);
+
+  private static GameState lastGameState;
+  private static long lastSaveTime;
+  private static long lastSaveGameTime;
+
+  private Autosaver() {
+    throw new AssertionError();
+  }
+
+  private static long readInterval(String property, long defaultValue) {
+    String value = System.getProperty(property);
+    if (value != null) {
+      try {
+        long seconds = Long.parseLong(value.trim());
+        if (seconds >= 0) {
+          return seconds;
+        }
+      } catch (NumberFormatException ignored) {
+        // Fall to the warning.
+      }
+      DungeonLogger.warning("Ignored invalid value of " + property + ": " + value + ".");
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Sets the autosave intervals.
+   *
+   * @param seconds the real time interval in seconds, zero to disable it
+   * @param gameSeconds the in-game time interval in seconds, zero to disable it
+   */
+  public static void setIntervals(long seconds, long gameSeconds) {
+    if (seconds < 0 || gameSeconds < 0) {
+      throw new IllegalArgumentException("intervals should be nonnegative.");
+    }
+    interval = seconds;
+    gameInterval = gameSeconds;
+  }
+
+  /**
+   * Should be called at the end of every turn. Queues an autosave if an interval elapsed since the GameState was last
+   * saved or loaded and tells the player if an earlier autosave failed.
+   *
+   * @param state the current GameState
+   */
+  public static void endTurn(GameState state) {
+    Loader.reportFailedAutosave();
+    long now = System.currentTimeMillis();
+    long gameTime = state.getWorld().getWorldDate().getTime();
+    if (state != lastGameState || state.isSaved()) {
+      restart(state, now, gameTime);
+    } else {
+      boolean realTimeElapsed = interval != 0 && now - lastSaveTime >= TimeUnit.SECONDS.toMillis(interval);
+      boolean gameTimeElapsed = gameInterval != 0 && gameTime - lastSaveGameTime >= gameInterval * SECOND.milliseconds;
+      if (realTimeElapsed || gameTimeElapsed) {
+        Loader.autosave(state);
+        restart(state, now, gameTime);
+      }
+    }
+  }
+
+  private static void restart(GameState state, long now, long gameTime) {
+    lastGameState = state;
+    lastSaveTime = now;
+    lastSaveGameTime = gameTime;
+  }
+
+}
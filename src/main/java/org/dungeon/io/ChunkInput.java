@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.dungeon.date.Date;
+import org.dungeon.game.Id;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes a chunk of the World written by a ChunkOutput. See ChunkOutput for the encoding.
+ */
+public final class ChunkInput {
+
+  private final byte[] bytes;
+  private final List<Id> ids = new ArrayList<Id>();
+  private int position;
+  private long lastTime;
+  private Date lastDate;
+
+  public ChunkInput(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  private byte readByte() throws IOException {
+    if (position == bytes.length) {
+      throw new EOFException("truncated chunk.");
+    }
+    return bytes[position++];
+  }
+
+  public boolean readBoolean() throws IOException {
+    return readVarLong() != 0;
+  }
+
+  public int readVarInt() throws IOException {
+    long value = readVarLong();
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IOException("invalid integer in chunk.");
+    }
+    return (int) value;
+  }
+
+  public int readSignedVarInt() throws IOException {
+    int value = (int) readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public long readSignedVarLong() throws IOException {
+    long value = readVarLong();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private long readVarLong() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("malformed integer in chunk.");
+  }
+
+  public String readString() throws IOException {
+    int length = readVarInt();
+    if (length > bytes.length - position) {
+      throw new EOFException("truncated chunk.");
+    }
+    String string = new String(bytes, position, length, ChunkOutput.CHARSET);
+    position += length;
+    return string;
+  }
+
+  public Id readId() throws IOException {
+    int index = readVarInt();
+    if (index == 0) {
+      Id id;
+      try {
+        id = Id.valueOf(readString());
+      } catch (IllegalArgumentException invalid) {
+        throw new IOException("invalid Id in chunk.");
+      }
+      ids.add(id);
+      return id;
+    } else if (index <= ids.size()) {
+      return ids.get(index - 1);
+    } else {
+      throw new IOException("invalid Id index in chunk.");
+    }
+  }
+
+  public long readTime() throws IOException {
+    lastTime += readSignedVarLong();
+    return lastTime;
+  }
+
+  /**
+   * Reads a Date. Consecutive equal Dates are decoded as the same Date object, as Dates are immutable.
+   */
+  public Date readDate() throws IOException {
+    long time = readTime();
+    if (lastDate == null || lastDate.getTime() != time) {
+      lastDate = Date.fromTime(time);
+    }
+    return lastDate;
+  }
+
+  /**
+   * Returns whether or not every byte of the chunk was read.
+   */
+  public boolean isExhausted() {
+    return position == bytes.length;
+  }
+
+}
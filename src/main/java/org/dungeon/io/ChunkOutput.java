@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.dungeon.date.Date;
+import org.dungeon.game.Id;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes the contents of a chunk of the World into the compact binary format of saved games.
+ *
+ * <p>Integers are written as variable-length quantities, seven bits per byte, so small values take a single byte.
+ * Signed values are zigzag encoded first. Ids are written in full only the first time they appear in a chunk and as
+ * indices afterwards, and times are written as differences from the previous time, as most Items of a chunk were
+ * created at the same few moments.
+ *
+ * <p>Only the state that differs from the presets is written. Everything else is taken from the presets when the chunk
+ * is read by a ChunkInput, so presets are referenced by their Ids.
+ */
+public final class ChunkOutput {
+
+  static final Charset CHARSET = Charset.forName("UTF-8");
+
+  private final Map<Id, Integer> ids = new HashMap<Id, Integer>();
+  private byte[] buffer = new byte[256];
+  private int size;
+  private long lastTime;
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, size + extra));
+    }
+  }
+
+  public void writeBoolean(boolean value) {
+    writeVarLong(value ? 1 : 0);
+  }
+
+  /**
+   * Writes a nonnegative integer.
+   */
+  public void writeVarInt(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("value should be nonnegative.");
+    }
+    writeVarLong(value);
+  }
+
+  /**
+   * Writes an integer that may be negative.
+   */
+  public void writeSignedVarInt(int value) {
+    writeVarLong((value << 1) ^ (value >> 31));
+  }
+
+  /**
+   * Writes a long that may be negative.
+   */
+  public void writeSignedVarLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  private void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  public void writeString(String string) {
+    byte[] bytes = string.getBytes(CHARSET);
+    writeVarInt(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  /**
+   * Writes an Id as its index among the Ids already written or, if it is new to this chunk, as a string.
+   */
+  public void writeId(Id id) {
+    Integer index = ids.get(id);
+    if (index == null) {
+      writeVarInt(0);
+      writeString(id.toString());
+      ids.put(id, ids.size() + 1);
+    } else {
+      writeVarInt(index);
+    }
+  }
+
+  /**
+   * Writes a time, in milliseconds, as the difference from the previous time written to this chunk.
+   */
+  public void writeTime(long time) {
+    writeSignedVarLong(time - lastTime);
+    lastTime = time;
+  }
+
+  public void writeDate(Date date) {
+    writeTime(date.getTime());
+  }
+
+  /**
+   * Returns a copy of the bytes written so far.
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * A content-addressed store of the chunks of the saved games in a folder.
+ *
+ * <p>Base files refer to their chunks by the SHA-1 hash of the encoded chunk. Each encoded chunk is stored once, in a
+ * file named after its hash, no matter how many saves have it, so saving the same World to many files costs little
+ * more than saving it to one. The store counts how many base files refer to each chunk and deletes the chunks no base
+ * file refers to anymore.
+ *
+ * <p>The reference counts are kept in a table together with the generation of every base file they account for. If
+ * these generations differ from the ones of the base files in the folder, as after a crash or after a save is deleted
+ * by hand, the counts are rebuilt from the base files and the chunks no base file refers to are deleted.
+ *
+ * <p>Chunks are only written and deleted by the thread that writes saves. Stored chunks never change, so any thread
+ * may read them.
+ */
+final class ChunkStore {
+
+  static final int HASH_SIZE = 20;
+
+  private static final String FOLDER_NAME = "chunks";
+  private static final String TABLE_NAME = "references";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final int MAGIC = 0x44435246;
+  private static final int VERSION = 1;
+  private static final char[] HEXADECIMAL_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final File savesFolder;
+  private final File folder;
+
+  ChunkStore(File savesFolder) {
+    this.savesFolder = savesFolder;
+    this.folder = new File(savesFolder, FOLDER_NAME);
+  }
+
+  /**
+   * Returns the hash of an encoded chunk.
+   */
+  static String hash(byte[] payload) {
+    try {
+      return toHexadecimal(MessageDigest.getInstance("SHA-1").digest(payload));
+    } catch (NoSuchAlgorithmException impossible) {
+      // Every Java platform is required to support SHA-1.
+      throw new AssertionError(impossible);
+    }
+  }
+
+  static String toHexadecimal(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEXADECIMAL_DIGITS[(bytes[i] >> 4) & 0xF];
+      chars[2 * i + 1] = HEXADECIMAL_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(chars);
+  }
+
+  static byte[] fromHexadecimal(String string) {
+    byte[] bytes = new byte[string.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(string.substring(2 * i, 2 * i + 2), 16);
+    }
+    return bytes;
+  }
+
+  private File getFile(String hash) {
+    return new File(folder, hash);
+  }
+
+  boolean contains(String hash) {
+    return getFile(hash).isFile();
+  }
+
+  /**
+   * Returns how many bytes a stored chunk takes or 0 if it is not stored.
+   */
+  long getLength(String hash) {
+    return getFile(hash).length();
+  }
+
+  /**
+   * Stores a chunk, which should not be in the store yet.
+   *
+   * @param hash the hash of the encoded chunk
+   * @param codec the codec of the data
+   * @param data the encoded chunk, as written by the codec
+   */
+  void write(String hash, int codec, byte[] data) throws IOException {
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new IOException("could not create " + folder.getName() + ".");
+    }
+    File temporary = new File(folder, hash + TEMPORARY_SUFFIX);
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+    try {
+      out.writeByte(codec);
+      out.write(data);
+    } finally {
+      out.close();
+    }
+    if (!temporary.renameTo(getFile(hash))) {
+      throw new IOException("could not store a chunk.");
+    }
+  }
+
+  /**
+   * Reads a stored chunk.
+   *
+   * @return the codec of the chunk followed by its data
+   */
+  byte[] read(String hash) throws IOException {
+    File file = getFile(hash);
+    byte[] bytes = new byte[(int) file.length()];
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    try {
+      in.readFully(bytes);
+    } finally {
+      in.close();
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns how many bytes the stored chunks take.
+   */
+  long getTotalLength() {
+    long length = 0;
+    File[] files = folder.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        length += file.length();
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Records that a base file was replaced and deletes the chunks no base file refers to anymore.
+   *
+   * @param name the name of the base file
+   * @param generation the generation of the new base file
+   * @param hashes the hashes of the chunks of the new base file
+   * @param oldGeneration the generation of the replaced base file or -1 if there was none
+   * @param oldHashes the hashes of the chunks of the replaced base file or null if they are unknown
+   */
+  void replaceReferences(String name, long generation, Collection<String> hashes, long oldGeneration,
+      Collection<String> oldHashes) throws IOException {
+    Table table = readTable();
+    if (table == null || oldHashes == null || !table.accountsFor(getGenerations(name, oldGeneration))) {
+      rebuild();
+      return;
+    }
+    for (String hash : hashes) {
+      table.increment(hash, 1);
+    }
+    if (oldGeneration != -1) {
+      for (String hash : oldHashes) {
+        if (table.increment(hash, -1) == 0 && !getFile(hash).delete()) {
+          DungeonLogger.warning("Could not delete the unreferenced chunk " + hash + ".");
+        }
+      }
+    }
+    table.generations.put(name, generation);
+    writeTable(table);
+  }
+
+  /**
+   * Returns the generations of the base files in the folder, taking the specified generation for the named base file.
+   */
+  private Map<String, Long> getGenerations(String name, long generation) {
+    Map<String, Long> generations = new HashMap<String, Long>();
+    File[] files = savesFolder.listFiles(DungeonFilenameFilters.getExtensionFilter());
+    if (files != null) {
+      for (File file : files) {
+        long fileGeneration = file.isFile() ? SaveFile.readGeneration(file) : -1;
+        // Base files that cannot be read are not counted.
+        if (fileGeneration != -1) {
+          generations.put(file.getName(), fileGeneration);
+        }
+      }
+    }
+    if (generation == -1) {
+      generations.remove(name);
+    } else {
+      generations.put(name, generation);
+    }
+    return generations;
+  }
+
+  /**
+   * Counts the references of every base file in the folder again and deletes the chunks that are not referred to.
+   */
+  private void rebuild() throws IOException {
+    DungeonLogger.info("Rebuilding the references of the chunk store.");
+    Table table = new Table();
+    File[] files = savesFolder.listFiles(DungeonFilenameFilters.getExtensionFilter());
+    if (files != null) {
+      for (File file : files) {
+        if (file.isFile()) {
+          try {
+            for (String hash : SaveFile.readChunkHashes(file)) {
+              table.increment(hash, 1);
+            }
+            table.generations.put(file.getName(), SaveFile.readGeneration(file));
+          } catch (IOException unreadable) {
+            // Not a base file of this version, so it does not refer to the store.
+            DungeonLogger.warning("Ignored " + file.getName() + " when counting chunk references.");
+          }
+        }
+      }
+    }
+    File[] chunks = folder.listFiles();
+    if (chunks != null) {
+      for (File chunk : chunks) {
+        if (!chunk.getName().equals(TABLE_NAME) && !table.counts.containsKey(chunk.getName()) && !chunk.delete()) {
+          DungeonLogger.warning("Could not delete the unreferenced chunk " + chunk.getName() + ".");
+        }
+      }
+    }
+    writeTable(table);
+  }
+
+  /**
+   * Reads the table of references or returns null if it does not exist or cannot be read.
+   */
+  private Table readTable() {
+    File file = new File(folder, TABLE_NAME);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      try {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+          return null;
+        }
+        Table table = new Table();
+        int generations = in.readInt();
+        for (int i = 0; i < generations; i++) {
+          table.generations.put(in.readUTF(), in.readLong());
+        }
+        int counts = in.readInt();
+        byte[] hash = new byte[HASH_SIZE];
+        for (int i = 0; i < counts; i++) {
+          in.readFully(hash);
+          table.counts.put(toHexadecimal(hash), in.readInt());
+        }
+        return table;
+      } finally {
+        in.close();
+      }
+    } catch (IOException unreadable) {
+      return null;
+    }
+  }
+
+  private void writeTable(Table table) throws IOException {
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new IOException("could not create " + folder.getName() + ".");
+    }
+    File file = new File(folder, TABLE_NAME);
+    File temporary = new File(folder, TABLE_NAME + TEMPORARY_SUFFIX);
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(table.generations.size());
+      for (Entry<String, Long> entry : table.generations.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue());
+      }
+      out.writeInt(table.counts.size());
+      for (Entry<String, Integer> entry : table.counts.entrySet()) {
+        out.write(fromHexadecimal(entry.getKey()));
+        out.writeInt(entry.getValue());
+      }
+    } finally {
+      out.close();
+    }
+    if (!temporary.renameTo(file) && (!file.delete() || !temporary.renameTo(file))) {
+      throw new IOException("could not replace " + TABLE_NAME + ".");
+    }
+  }
+
+  /**
+   * How many base files refer to each chunk, and the generations of the base files that were counted.
+   */
+  private static final class Table {
+
+    private final Map<String, Long> generations = new HashMap<String, Long>();
+    private final Map<String, Integer> counts = new HashMap<String, Integer>();
+
+    boolean accountsFor(Map<String, Long> generations) {
+      return this.generations.equals(generations);
+    }
+
+    /**
+     * Adds to the count of a chunk, forgetting it when the count reaches zero.
+     *
+     * @return the new count
+     */
+    int increment(String hash, int amount) {
+      Integer count = counts.get(hash);
+      int newCount = (count == null ? 0 : count) + amount;
+      if (newCount > 0) {
+        counts.put(hash, newCount);
+      } else {
+        counts.remove(hash);
+      }
+      return newCount;
+    }
+
+  }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2015 Bernardo Sulzbach
+ * Copyright (C) 2014 Bernardo Sulzbach
  *
  * This program is free software: you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -17,27 +17,27 @@
 
 package org.dungeon.io;
 
-import java.io.File;
-import java.util.Comparator;
+import java.io.OutputStream;
 
 /**
- * A Comparator function that compares the last modification times of Files. This comparator orders files from newest to
- * oldest, which is, in terms of last modified timestamps, from largest to smallest.
- *
- * This is not consistent with equals.
- *
- * Serializable is not implemented by design. This Comparator was devised to be used by Arrays.sort and nothing else.
+ * An OutputStream that discards everything written to it and only counts how many bytes were written.
  */
-class FileLastModifiedComparator implements Comparator<File> {
+final class CountingOutputStream extends OutputStream {
+
+  private long count;
 
   @Override
-  public int compare(File a, File b) {
-    return Long.valueOf(b.lastModified()).compareTo(a.lastModified());
+  public void write(int b) {
+    count++;
   }
 
   @Override
-  public boolean equals(Object obj) {
-    return false;
+  public void write(byte[] b, int off, int len) {
+    count += len;
+  }
+
+  public long getCount() {
+    return count;
   }
 
 }
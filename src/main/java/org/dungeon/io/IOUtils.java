@@ -17,7 +17,11 @@
 
 package org.dungeon.io;
 
-class IOUtils {
+public final class IOUtils {
+
+  private IOUtils() {
+    throw new AssertionError();
+  }
 
   /**
    * Converts a given number of bytes to a human readable format.
@@ -20,17 +20,24 @@ package org.dungeon.io;
 import org.dungeon.commands.IssuedCommand;
 import org.dungeon.game.Game;
 import org.dungeon.game.GameState;
-import org.dungeon.util.Messenger;
 import org.dungeon.util.StopWatch;
+import org.dungeon.util.Table;
 
-import org.nustaq.serialization.FSTObjectInput;
-import org.nustaq.serialization.FSTObjectOutput;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 import javax.swing.JOptionPane;
 
@@ -42,8 +49,34 @@ public final class Loader {
   private static final File SAVES_FOLDER = new File("saves/");
   private static final String SAVE_EXTENSION = ".dungeon";
   private static final String DEFAULT_SAVE_NAME = "default" + SAVE_EXTENSION;
+  private static final String AUTOSAVE_NAME = "autosave" + SAVE_EXTENSION;
   private static final String SAVE_CONFIRM = "Do you want to save the game?";
   private static final String LOAD_CONFIRM = "Do you want to load the game?";
+  private static final int BENCHMARK_REPETITIONS = 5;
+  private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+  private static final SaveIndex SAVE_INDEX = new SaveIndex(SAVES_FOLDER);
+  // Writes prepared saves to disk, one at a time and in the order in which they were prepared.
+  private static final ExecutorService SAVE_WRITER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(@NotNull Runnable runnable) {
+      Thread thread = new Thread(runnable, "Save Writer");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  // Decodes the chunks of loaded games, one per available processor.
+  private static final ExecutorService CHUNK_DECODER = Executors.newFixedThreadPool(PROCESSORS, new ThreadFactory() {
+    @Override
+    public Thread newThread(@NotNull Runnable runnable) {
+      Thread thread = new Thread(runnable, "Chunk Decoder");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  // The write of the last autosave, which is checked at the end of the turns after it. Only used by the game thread.
+  private static Future<Void> lastAutosave;
 
   private Loader() { // Ensure that this class cannot be instantiated.
     throw new AssertionError();
@@ -63,14 +96,15 @@ public final class Loader {
    * Checks if any file in the saves folder ends with the save extension.
    */
   public static boolean checkForSave() {
-    File[] sortedArrayOfSavedFiles = getSortedArrayOfSavedFiles();
-    return (sortedArrayOfSavedFiles != null && sortedArrayOfSavedFiles.length != 0);
+    List<SaveIndex.Entry> saves = getSaves();
+    return saves != null && !saves.isEmpty();
   }
 
   /**
    * Prompts the user to confirm an operation using a dialog window.
    */
   private static boolean confirmOperation(String confirmation) {
+    Writer.flush();
     int result = JOptionPane.showConfirmDialog(Game.getGameWindow(), confirmation, null, JOptionPane.YES_NO_OPTION);
     Game.getGameWindow().requestFocusOnTextField();
     return result == JOptionPane.YES_OPTION;
@@ -137,6 +171,7 @@ public final class Loader {
       String argument = issuedCommand.getFirstArgument();
       argument = ensureSaveEndsWithExtension(argument);
       File save = createFileFromName(argument);
+      waitForPendingSaves(); // The file may not exist until the save writer gets to it.
       if (isSaveFile(save)) {
         return loadFile(save);
       } else {
@@ -154,24 +189,32 @@ public final class Loader {
 
   /**
    * Saves the specified GameState to the default save file.
+   *
+   * @return false if the game could not be saved
    */
-  public static void saveGame(GameState gameState) {
-    saveGame(gameState, null);
+  public static boolean saveGame(GameState gameState) {
+    return saveGame(gameState, null);
   }
 
   /**
-   * Saves the specified GameState, using the default save file or the one defined in the IssuedCommand.
+   * Saves the specified GameState, using the default save file or the one defined in the IssuedCommand. Waits until the
+   * save is written to disk and tells the player whether it was.
+   *
+   * <p>Only asks for confirmation if there already is a save file with the name and the GameState was not last saved to
+   * or loaded from it.
    *
-   * <p>Only asks for confirmation if there already is a save file with the name.
+   * @return false if the game could not be saved, true if it was saved or if the player chose not to save it
    */
-  public static void saveGame(GameState gameState, IssuedCommand issuedCommand) {
+  public static boolean saveGame(GameState gameState, IssuedCommand issuedCommand) {
     String saveName = DEFAULT_SAVE_NAME;
     if (issuedCommand != null && issuedCommand.hasArguments()) {
       saveName = issuedCommand.getFirstArgument();
     }
-    if (saveFileDoesNotExist(saveName) || confirmOperation(SAVE_CONFIRM)) {
-      saveFile(gameState, saveName);
+    boolean sameSave = ensureSaveEndsWithExtension(saveName).equals(gameState.getSaveName());
+    if (sameSave || saveFileDoesNotExist(saveName) || confirmOperation(SAVE_CONFIRM)) {
+      return saveFile(gameState, saveName);
     }
+    return true;
   }
 
   /**
@@ -202,15 +245,11 @@ public final class Loader {
    */
   private static GameState loadFile(File file) {
     StopWatch stopWatch = new StopWatch();
-    FileInputStream fileInStream;
-    FSTObjectInput objectInStream;
+    waitForPendingSaves();
     try {
-      fileInStream = new FileInputStream(file);
-      objectInStream = new FSTObjectInput(fileInStream);
-      GameState loadedGameState = (GameState) objectInStream.readObject();
-      objectInStream.close();
+      GameState loadedGameState = SaveFile.read(file, CHUNK_DECODER);
       loadedGameState.setSaved(true); // It is saved, we just loaded it (needed as it now defaults to false).
-      String sizeString = IOUtils.bytesToHuman(file.length());
+      String sizeString = IOUtils.bytesToHuman(SaveFile.getTotalLength(file));
       DungeonLogger.info(String.format("Loaded %s in %s.", sizeString, stopWatch.toString()));
       Writer.writeString(String.format("Successfully loaded the game (read %s from %s).", sizeString, file.getName()));
       return loadedGameState;
@@ -221,54 +260,227 @@ public final class Loader {
   }
 
   /**
-   * Serializes the specified {@code GameState} state to a file.
+   * Saves the GameState to the autosave file without asking for confirmation and without waiting for the save to be
+   * written. The files the player saves to are never autosaved to, so they keep the game as the player saved it.
+   *
+   * <p>If the save cannot be written, the player is told so at the end of a later turn.
+   *
+   * @param state a GameState
+   */
+  public static void autosave(GameState state) {
+    try {
+      SaveFile.PendingSave save = prepareSave(state, AUTOSAVE_NAME);
+      DungeonLogger.info("Autosaving " + IOUtils.bytesToHuman(save.getSize()) + " to " + AUTOSAVE_NAME + ".");
+      lastAutosave = queueWrite(save);
+    } catch (IOException bad) {
+      Writer.writeString("Could not autosave the game: " + bad.getMessage());
+    }
+  }
+
+  /**
+   * Tells the player if the last autosave failed, once it was written. Should be called at the end of every turn.
+   */
+  static void reportFailedAutosave() {
+    if (lastAutosave != null && lastAutosave.isDone()) {
+      try {
+        waitFor(lastAutosave);
+      } catch (IOException bad) {
+        Writer.writeString("Could not autosave the game: " + bad.getMessage());
+      }
+      lastAutosave = null;
+    }
+  }
+
+  /**
+   * Serializes the specified {@code GameState} state to a file and waits until it is written.
    *
    * @param state a GameState
    * @param name the name of the file
+   * @return true if the GameState was written to the file
    */
-  private static void saveFile(GameState state, String name) {
+  private static boolean saveFile(GameState state, String name) {
+    try {
+      SaveFile.PendingSave save = prepareSave(state, name);
+      state.setSaveName(save.getFile().getName());
+      waitFor(queueWrite(save));
+      state.setSaved(true);
+      String sizeString = IOUtils.bytesToHuman(save.getSize());
+      String fileName = save.getFile().getName();
+      Writer.writeString(String.format("Successfully saved the game (wrote %s to %s).", sizeString, fileName));
+      return true;
+    } catch (IOException bad) {
+      Writer.writeString("Could not save the game: " + bad.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Takes a snapshot of the GameState that can be written to disk by the save writer thread.
+   *
+   * @param state a GameState
+   * @param name the name of the file
+   * @return the PendingSave
+   */
+  private static SaveFile.PendingSave prepareSave(GameState state, String name) throws IOException {
     StopWatch stopWatch = new StopWatch();
-    File file = createFileFromName(name);
-    FileOutputStream fileOutStream;
-    FSTObjectOutput objectOutStream;
+    if (!SAVES_FOLDER.exists()) {
+      if (!SAVES_FOLDER.mkdir()) {
+        throw new IOException("failed to create the '" + SAVES_FOLDER.getName() + "' directory.");
+      }
+    }
+    SaveFile.PendingSave save = SaveFile.prepare(state, createFileFromName(name));
+    String sizeString = IOUtils.bytesToHuman(save.getSize());
+    DungeonLogger.info(String.format("Prepared a save of %s in %s.", sizeString, stopWatch.toString()));
+    return save;
+  }
+
+  /**
+   * Queues a PendingSave to be written to disk by the save writer thread.
+   *
+   * @return a Future that fails with the IOException of the write, if any
+   */
+  private static Future<Void> queueWrite(final SaveFile.PendingSave save) {
+    return SAVE_WRITER.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException {
+        StopWatch stopWatch = new StopWatch();
+        try {
+          save.write();
+        } catch (IOException bad) {
+          DungeonLogger.warning("Could not write " + save.getFile().getName() + ": " + bad.getMessage());
+          throw bad;
+        }
+        SAVE_INDEX.update(save.getFile(), save.getMetadata());
+        DungeonLogger.info(String.format("Wrote %s in %s.", save.getFile().getName(), stopWatch.toString()));
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Waits for the write of a save to finish.
+   *
+   * @throws IOException if the save could not be written
+   */
+  private static void waitFor(Future<Void> write) throws IOException {
     try {
-      if (!SAVES_FOLDER.exists()) {
-        if (!SAVES_FOLDER.mkdir()) {
-          Messenger.printFailedToCreateDirectoryMessage(SAVES_FOLDER.getName());
-          return;
+      write.get();
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting for a save to be written.");
+    } catch (ExecutionException failed) {
+      Throwable cause = failed.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new RuntimeException(cause);
+      }
+    }
+  }
+
+  /**
+   * Blocks until all saves that were queued so far were written to disk.
+   */
+  public static void waitForPendingSaves() {
+    try {
+      SAVE_WRITER.submit(new Runnable() {
+        @Override
+        public void run() {
         }
+      }).get();
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException impossible) {
+      throw new AssertionError(impossible);
+    }
+  }
+
+  /**
+   * Returns how many bytes the specified GameState would take if it were saved now.
+   *
+   * @param state a GameState
+   * @return the size of the serialized GameState, in bytes
+   */
+  public static long getSerializedSize(GameState state) throws IOException {
+    return SaveFile.measure(state);
+  }
+
+  /**
+   * Writes how small the records of a save get and how long compressing and decompressing them takes with each Deflater
+   * level.
+   *
+   * @param saveName the name of the save file to be measured or null to measure the save of the current GameState
+   */
+  public static void writeCompressionBenchmark(@Nullable String saveName) {
+    GameState state = Game.getGameState();
+    if (saveName != null) {
+      File save = createFileFromName(saveName);
+      if (!isSaveFile(save)) {
+        Writer.writeString(save.getName() + " does not exist or is not a file.");
+        return;
       }
-      fileOutStream = new FileOutputStream(file);
-      objectOutStream = new FSTObjectOutput(fileOutStream);
-      objectOutStream.writeObject(state);
-      objectOutStream.close();
-      state.setSaved(true);
-      String sizeString = IOUtils.bytesToHuman(file.length());
-      DungeonLogger.info(String.format("Saved %s in %s.", sizeString, stopWatch.toString()));
-      Writer.writeString(String.format("Successfully saved the game (wrote %s to %s).", sizeString, file.getName()));
+      waitForPendingSaves();
+      try {
+        state = SaveFile.read(save, CHUNK_DECODER);
+      } catch (Exception bad) {
+        Writer.writeString("Could not load the saved game.");
+        return;
+      }
+    }
+    try {
+      byte[] records = SaveFile.serializeSnapshot(state);
+      Table table = new Table("Level", "Size", "Ratio", "Compression", "Decompression");
+      table.insertRow("None", IOUtils.bytesToHuman(records.length), "1.00", "", "");
+      for (int level = Deflater.BEST_SPEED; level <= Deflater.BEST_COMPRESSION; level++) {
+        byte[] compressed = SaveFile.compress(records, level); // Also warms up the code before it is timed.
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_REPETITIONS; i++) {
+          SaveFile.compress(records, level);
+        }
+        long compressionTime = (System.nanoTime() - start) / BENCHMARK_REPETITIONS;
+        SaveFile.decompress(compressed);
+        start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_REPETITIONS; i++) {
+          SaveFile.decompress(compressed);
+        }
+        long decompressionTime = (System.nanoTime() - start) / BENCHMARK_REPETITIONS;
+        String ratio = String.format("%.2f", records.length / (double) compressed.length);
+        table.insertRow(String.valueOf(level), IOUtils.bytesToHuman(compressed.length), ratio,
+            nanosecondsToString(compressionTime), nanosecondsToString(decompressionTime));
+      }
+      table.print();
     } catch (IOException bad) {
-      Writer.writeString("Could not save the game.");
+      Writer.writeString("Could not serialize the game.");
     }
   }
 
+  private static String nanosecondsToString(long nanoseconds) {
+    return String.format("%.2f ms", nanoseconds / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
   /**
-   * Returns an array of abstract pathnames denoting the files and directories in the saves folder that end with a valid
-   * extension. Returns null if an I/O error occurs.
+   * Returns the save files in the saves folder, from the newest to the oldest. Returns null if an I/O error occurs.
    */
-  public static File[] getSortedArrayOfSavedFiles() {
-    File[] saveFiles = SAVES_FOLDER.listFiles(DungeonFilenameFilters.getExtensionFilter());
-    if (saveFiles != null) {
-      Arrays.sort(saveFiles, new FileLastModifiedComparator());
-    }
-    return saveFiles;
+  static List<SaveIndex.Entry> getSaves() {
+    waitForPendingSaves();
+    return SAVE_INDEX.list();
+  }
+
+  /**
+   * Returns how many bytes the chunks shared by the saves take.
+   */
+  static long getChunkStoreLength() {
+    return new ChunkStore(SAVES_FOLDER).getTotalLength();
   }
 
   private static File getMostRecentlySavedFile() {
-    File[] saveFiles = getSortedArrayOfSavedFiles();
-    if (saveFiles.length == 0) {
+    List<SaveIndex.Entry> saves = getSaves();
+    if (saves == null || saves.isEmpty()) {
       return null;
     } else {
-      return saveFiles[0];
+      return saves.get(0).getFile();
     }
   }
 
@@ -0,0 +1,1176 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.dungeon.game.EncodedChunk;
+import org.dungeon.game.GameState;
+import org.dungeon.game.Location;
+import org.dungeon.game.Point;
+import org.dungeon.game.World;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.nustaq.serialization.FSTObjectInput;
+import org.nustaq.serialization.FSTObjectOutput;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes saved games as records.
+ *
+ * <p>A saved game is a base file and, optionally, a log file next to it. The base file has a record for each chunk of
+ * the World and a core record with the rest of the GameState. The log has the saves made after the base file was
+ * written, each one made of the records of the chunks that changed, a core record and a commit record. When the game
+ * is loaded, the records of the log replace the ones of the base file, so saving only writes what changed. Once the log
+ * grows larger than the save it applies to, which is the base file and the stored chunks it refers to, the next save
+ * rewrites the base file and deletes the log.
+ *
+ * <p>Saving is split in two steps so that the game does not wait for the disk. The game thread serializes a consistent
+ * snapshot of what changed into memory with prepare and any thread may then write the PendingSave it returns.
+ *
+ * <p>Chunks are encoded by ChunkOutput, which writes the Ids of the presets of Locations and Entities and only the
+ * state that may differ from the presets. The core record is serialized with FST, and has the Hero.
+ *
+ * <p>Both files start with a header made of a magic number, a format version, the generation of the base file and the
+ * codec of the records. A log is only applied to the base file of the same generation, and records that are not
+ * followed by a commit record are ignored, so an interrupted save never corrupts the saves before it. The header of the
+ * base file is followed by the SaveMetadata of the latest save, which is rewritten in place when a save is appended to
+ * the log, so that saves can be listed without being read.
+ *
+ * <p>After its header, the base file has a directory with how many bytes its chunks take in the ChunkStore and the
+ * type, the chunk, the position and the length of every record, followed by the payloads of the records. The base
+ * file is read into memory when loading and only the core and the chunks around the Hero are decoded right away. The
+ * other chunks are decoded by the World when they are first needed, so loading takes about the same time no matter how
+ * much of the World was explored. The log is read sequentially, as it is never larger than the save it applies to.
+ *
+ * <p>The payloads of the chunk records of a base file are not in the file, but in the ChunkStore of its folder, and the
+ * base file only has their hashes. Saves of the same World share the chunks that did not change between them.
+ *
+ * <p>Records are either stored as they are or compressed. In the base file, each payload is compressed on its own so
+ * that it can be read without the others. In the log, every save is a separate GZIP member, so that saves can be
+ * appended, and a save is only applied once the checksum of its member matches. The codec is read from the header when
+ * loading. The Deflater level of new saves is read from the system property {@code dungeon.save.compressionLevel},
+ * where 0 disables compression.
+ */
+final class SaveFile {
+
+  private static final int MAGIC = 0x44554E47;
+  private static final int VERSION = 7;
+  private static final String LOG_SUFFIX = ".log";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  static final int CORE = 1;
+  static final int CHUNK = 2;
+  static final int COMMIT = 3;
+
+  private static final int UNCOMPRESSED = 0;
+  private static final int COMPRESSED = 1;
+
+  private static final String COMPRESSION_LEVEL_PROPERTY = "dungeon.save.compressionLevel";
+  private static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+  private static final int BUFFER_SIZE = 8192;
+
+  private static final int COMPRESSION_LEVEL = readCompressionLevel();
+  // The codec of new files.
+  private static final int CODEC = COMPRESSION_LEVEL == Deflater.NO_COMPRESSION ? UNCOMPRESSED : COMPRESSED;
+
+  // The magic number, the version, the generation and the codec.
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 1;
+  // The number of records and how many bytes the chunks take in the ChunkStore.
+  private static final int DIRECTORY_HEADER_SIZE = 4 + 8;
+  // The type, the chunk, the position and the length and the uncompressed length of a record.
+  private static final int DIRECTORY_ENTRY_SIZE = 1 + 4 + 4 + 8 + 4 + 4;
+  // The magic number, the compression method and the flags of the GZIP members written by GZIPOutputStream.
+  private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0};
+  private static final int GZIP_HEADER_SIZE = 10;
+  // The CRC-32 and the uncompressed length of a GZIP member.
+  private static final int GZIP_TRAILER_SIZE = 4 + 4;
+  // How far, in chunks, from the chunk of the Hero the chunks that are decoded when the game is loaded can be.
+  private static final int EAGER_CHUNK_DISTANCE = 1;
+
+  // The paths of the base files whose last write failed. Their logs may lack chunks, so they must be rewritten.
+  private static final Set<String> staleFiles = Collections.synchronizedSet(new HashSet<String>());
+
+  private SaveFile() {
+    throw new AssertionError();
+  }
+
+  private static int readCompressionLevel() {
+    String value = System.getProperty(COMPRESSION_LEVEL_PROPERTY);
+    if (value != null) {
+      try {
+        int level = Integer.parseInt(value.trim());
+        if (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION) {
+          return level;
+        }
+      } catch (NumberFormatException ignored) {
+        // Fall to the warning.
+      }
+      DungeonLogger.warning("Ignored invalid value of " + COMPRESSION_LEVEL_PROPERTY + ": " + value + ".");
+    }
+    return DEFAULT_COMPRESSION_LEVEL;
+  }
+
+  private static File getLogFile(File file) {
+    return new File(file.getPath() + LOG_SUFFIX);
+  }
+
+  /**
+   * Returns how many bytes the base file and the log file of a saved game take together.
+   */
+  static long getTotalLength(File file) {
+    return file.length() + getLogFile(file).length();
+  }
+
+  /**
+   * Serializes what must be saved for the GameState to be written to the specified base file. If the GameState was
+   * written to or read from this file before, only the chunks that changed since then are serialized, to be appended to
+   * the log. Otherwise, the whole GameState is serialized, to replace the base file. The Locations that are serialized
+   * are compacted first, see World.compact.
+   *
+   * <p>Must be called by the thread that runs the game. The returned PendingSave no longer refers to the GameState and
+   * may be written by any thread.
+   *
+   * @param state the GameState
+   * @param file the base file
+   * @return a PendingSave
+   */
+  static PendingSave prepare(GameState state, File file) throws IOException {
+    Long checkpoint = state.getSaveCheckpoint(file.getName());
+    boolean incremental = checkpoint != null && canAppendTo(file);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    World world = state.getWorld();
+    int removedItems;
+    if (incremental) {
+      world.markDirty(state.getHeroPosition());
+      Set<Point> chunks = world.getChunksModifiedAfter(checkpoint);
+      // The chunks that did not change are compacted by the next save that rewrites the base file.
+      removedItems = world.compact(chunks);
+      for (Point chunk : chunks) {
+        writeChunk(out, chunk, encodeChunk(chunk, world.getChunk(chunk)));
+      }
+      writeRecord(out, CORE, serialize(state));
+      out.writeByte(COMMIT);
+    } else {
+      removedItems = state.compact();
+      writeSnapshot(out, state);
+    }
+    String compacted = incremental ? "the changed chunks" : "the world";
+    DungeonLogger.info("Compacted " + compacted + " before saving, removing " + removedItems + " items.");
+    out.close();
+    state.setSaveCheckpoint(file.getName(), world.getModificationCount());
+    return new PendingSave(file, incremental, bytes.toByteArray(), SaveMetadata.of(state));
+  }
+
+  /**
+   * Returns whether the next save to the specified base file may be appended to its log. This is not the case if the
+   * base file does not exist, if its last write failed or if its log is larger than the save it applies to.
+   */
+  static boolean canAppendTo(File file) {
+    if (!file.isFile() || staleFiles.contains(file.getPath())) {
+      return false;
+    }
+    try {
+      return getLogFile(file).length() < readSaveLength(file);
+    } catch (IOException unreadable) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns how many bytes a base file with the specified GameState would take if its chunks were in the file.
+   */
+  static long measure(GameState state) throws IOException {
+    CountingOutputStream countingStream = new CountingOutputStream();
+    DataOutputStream out = new DataOutputStream(countingStream);
+    writeHeader(out, 0, CODEC);
+    out.write(SaveMetadata.of(state).toByteArray());
+    writeBaseBody(out, serializeSnapshot(state), CODEC, COMPRESSION_LEVEL, null);
+    out.close();
+    return countingStream.getCount();
+  }
+
+  /**
+   * Returns the uncompressed records of a base file with the specified GameState.
+   */
+  static byte[] serializeSnapshot(GameState state) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writeSnapshot(out, state);
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Compresses records as they would be written to a base file with the specified Deflater level.
+   *
+   * @return the base file without its header
+   */
+  static byte[] compress(byte[] records, int level) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writeBaseBody(out, records, COMPRESSED, level, null);
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decompresses all the records returned by compress.
+   */
+  static void decompress(byte[] compressed) throws IOException {
+    Snapshot snapshot = new Snapshot();
+    readBaseBody(ByteBuffer.wrap(compressed), COMPRESSED, snapshot, null);
+    snapshot.core.getPayload();
+    for (Record record : snapshot.chunks.values()) {
+      record.getPayload();
+    }
+  }
+
+  private static void writeSnapshot(DataOutputStream out, GameState state) throws IOException {
+    World world = state.getWorld();
+    for (Point chunk : world.getChunks()) {
+      EncodedChunk encodedChunk = world.getEncodedChunk(chunk);
+      if (encodedChunk != null) {
+        // Chunks that were not decoded did not change, so they are saved as they were loaded.
+        writeChunk(out, chunk, encodedChunk.getPayload());
+      } else {
+        writeChunk(out, chunk, encodeChunk(chunk, world.getChunk(chunk)));
+      }
+    }
+    writeRecord(out, CORE, serialize(state));
+    out.writeByte(COMMIT);
+  }
+
+  private static void writeHeader(DataOutputStream out, long generation, int codec) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(generation);
+    out.writeByte(codec);
+  }
+
+  /**
+   * Writes the directory and the payloads of a base file from a stream of records. The positions in the directory are
+   * relative to the start of the directory.
+   *
+   * @param store the ChunkStore to which the chunks are written or null to write them to the base file
+   * @return the hashes of the chunks, which are only computed if there is a store
+   */
+  private static List<String> writeBaseBody(DataOutputStream out, byte[] records, int codec, int level,
+      @Nullable ChunkStore store) throws IOException {
+    List<Record> entries = parseRecords(records);
+    List<byte[]> payloads = new ArrayList<byte[]>(entries.size());
+    List<String> hashes = new ArrayList<String>();
+    long storedLength = 0;
+    Deflater deflater = new Deflater(level);
+    try {
+      for (Record entry : entries) {
+        byte[] payload = entry.getPayload();
+        if (store != null && entry.type == CHUNK) {
+          String hash = ChunkStore.hash(payload);
+          // Chunks that are already stored, by this save or by another one, are neither compressed nor written again.
+          if (!store.contains(hash)) {
+            store.write(hash, codec, codec == COMPRESSED ? deflate(deflater, payload) : payload);
+          }
+          storedLength += store.getLength(hash);
+          hashes.add(hash);
+          payloads.add(ChunkStore.fromHexadecimal(hash));
+        } else {
+          payloads.add(codec == COMPRESSED ? deflate(deflater, payload) : payload);
+        }
+      }
+    } finally {
+      deflater.end();
+    }
+    out.writeInt(entries.size());
+    out.writeLong(storedLength);
+    long offset = DIRECTORY_HEADER_SIZE + (long) entries.size() * DIRECTORY_ENTRY_SIZE;
+    for (int i = 0; i < entries.size(); i++) {
+      Record entry = entries.get(i);
+      out.writeByte(entry.type);
+      out.writeInt(entry.chunk == null ? 0 : entry.chunk.getX());
+      out.writeInt(entry.chunk == null ? 0 : entry.chunk.getY());
+      out.writeLong(offset);
+      out.writeInt(payloads.get(i).length);
+      out.writeInt(entry.rawLength);
+      offset += payloads.get(i).length;
+    }
+    for (byte[] payload : payloads) {
+      out.write(payload);
+    }
+    return hashes;
+  }
+
+  /**
+   * Splits a stream of complete records, as made by prepare, into uncompressed records.
+   */
+  private static List<Record> parseRecords(byte[] records) throws IOException {
+    List<Record> entries = new ArrayList<Record>();
+    ByteBuffer buffer = ByteBuffer.wrap(records);
+    try {
+      while (buffer.hasRemaining()) {
+        int type = buffer.get();
+        if (type == CHUNK || type == CORE) {
+          Point chunk = type == CHUNK ? new Point(buffer.getInt(), buffer.getInt()) : null;
+          int length = buffer.getInt();
+          entries.add(Record.of(type, chunk, slice(buffer, buffer.position(), length)));
+          buffer.position(buffer.position() + length);
+        } else if (type != COMMIT) {
+          throw new IOException("unknown record type.");
+        }
+      }
+    } catch (BufferUnderflowException truncated) {
+      throw new IOException("incomplete records.");
+    }
+    return entries;
+  }
+
+  private static byte[] deflate(Deflater deflater, byte[] bytes) {
+    deflater.reset();
+    deflater.setInput(bytes);
+    deflater.finish();
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    while (!deflater.finished()) {
+      out.write(buffer, 0, deflater.deflate(buffer));
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] inflate(ByteBuffer data, int rawLength) throws IOException {
+    byte[] input = new byte[data.remaining()];
+    data.duplicate().get(input);
+    byte[] output = new byte[rawLength];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(input);
+      int inflated = 0;
+      while (inflated < rawLength && !inflater.finished() && !inflater.needsInput()) {
+        inflated += inflater.inflate(output, inflated, rawLength - inflated);
+      }
+      if (inflated != rawLength || !inflater.finished()) {
+        throw new IOException("corrupted record.");
+      }
+      return output;
+    } catch (DataFormatException corrupted) {
+      throw new IOException("corrupted record.", corrupted);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Writes a GZIP member to the log, which is finished but leaves the underlying stream open.
+   */
+  private static void writeLogBody(OutputStream out, int codec, byte[] records) throws IOException {
+    if (codec == COMPRESSED) {
+      MemberOutputStream memberStream = new MemberOutputStream(out, COMPRESSION_LEVEL);
+      memberStream.write(records);
+      memberStream.finishMember();
+    } else {
+      out.write(records);
+    }
+  }
+
+  /**
+   * Inflates the GZIP member at the position of the buffer and moves the buffer past it.
+   *
+   * <p>GZIPInputStream is not used, as it takes a member whose header is truncated or corrupted for the end of the
+   * stream, so a log with such a member would seem complete and the saves appended after it would never be read.
+   *
+   * @return the uncompressed member or null if it is truncated or corrupted
+   */
+  @Nullable
+  private static ByteBuffer inflateMember(ByteBuffer buffer) {
+    if (buffer.remaining() < GZIP_HEADER_SIZE) {
+      return null;
+    }
+    for (byte expected : GZIP_HEADER) {
+      if (buffer.get() != expected) {
+        return null;
+      }
+    }
+    // The rest of the header only has the modification time, the extra flags and the operating system.
+    buffer.position(buffer.position() + GZIP_HEADER_SIZE - GZIP_HEADER.length);
+    ByteArrayOutputStream member = new ByteArrayOutputStream();
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      byte[] output = new byte[BUFFER_SIZE];
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(output);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          return null;
+        }
+        member.write(output, 0, inflated);
+      }
+      buffer.position(buffer.limit() - inflater.getRemaining());
+    } catch (DataFormatException corrupted) {
+      return null;
+    } finally {
+      inflater.end();
+    }
+    if (buffer.remaining() < GZIP_TRAILER_SIZE) {
+      return null;
+    }
+    ByteBuffer trailer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    buffer.position(buffer.position() + GZIP_TRAILER_SIZE);
+    byte[] bytes = member.toByteArray();
+    CRC32 checksum = new CRC32();
+    checksum.update(bytes);
+    if (trailer.getInt() != (int) checksum.getValue() || trailer.getInt() != bytes.length) {
+      return null;
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  static void writeChunk(DataOutputStream out, Point chunk, byte[] payload) throws IOException {
+    out.writeByte(CHUNK);
+    out.writeInt(chunk.getX());
+    out.writeInt(chunk.getY());
+    out.writeInt(payload.length);
+    out.write(payload);
+  }
+
+  private static byte[] encodeChunk(Point chunk, Map<Point, Location> locations) {
+    ChunkOutput out = new ChunkOutput();
+    out.writeVarInt(locations.size());
+    for (Entry<Point, Location> entry : locations.entrySet()) {
+      // Points are written relative to the corner of the chunk, so they fit in a byte each.
+      out.writeVarInt(entry.getKey().getX() - chunk.getX() * World.CHUNK_SIDE);
+      out.writeVarInt(entry.getKey().getY() - chunk.getY() * World.CHUNK_SIDE);
+      entry.getValue().writeTo(out);
+    }
+    return out.toByteArray();
+  }
+
+  private static Map<Point, Location> decodeChunk(Point chunk, byte[] payload, GameState state) throws IOException {
+    ChunkInput in = new ChunkInput(payload);
+    int size = in.readVarInt();
+    Map<Point, Location> locations = new HashMap<Point, Location>();
+    for (int i = 0; i < size; i++) {
+      int x = chunk.getX() * World.CHUNK_SIDE + in.readVarInt();
+      int y = chunk.getY() * World.CHUNK_SIDE + in.readVarInt();
+      locations.put(new Point(x, y), Location.readFrom(in, state.getWorld(), state.getHero()));
+    }
+    if (!in.isExhausted()) {
+      throw new IOException("unexpected data at the end of a chunk.");
+    }
+    return locations;
+  }
+
+  static void writeRecord(DataOutputStream out, int type, byte[] payload) throws IOException {
+    out.writeByte(type);
+    out.writeInt(payload.length);
+    out.write(payload);
+  }
+
+  /**
+   * Loads a GameState from the specified base file and the log next to it, if there is one.
+   *
+   * <p>All chunks are queued to the decoder, from the nearest to the farthest from the Hero. This method only waits for
+   * the chunks around the Hero, which are decoded in parallel. The others are added to the World as EncodedChunks, and
+   * the World waits for them or decodes them itself if it needs them before the decoder gets to them.
+   *
+   * @param file the base file
+   * @param decoder the Executor that decodes chunks
+   * @return the GameState, never null
+   */
+  static GameState read(File file, Executor decoder) throws IOException, ClassNotFoundException {
+    Snapshot snapshot = readSnapshot(file);
+    GameState state = (GameState) deserialize(snapshot.core.getPayload());
+    World world = state.getWorld();
+    Point heroChunk = World.getChunkOf(state.getHeroPosition());
+    List<LazyChunk> lazyChunks = new ArrayList<LazyChunk>(snapshot.chunks.size());
+    for (Entry<Point, Record> entry : snapshot.chunks.entrySet()) {
+      lazyChunks.add(new LazyChunk(entry.getKey(), entry.getValue(), state, heroChunk));
+    }
+    Collections.sort(lazyChunks);
+    for (LazyChunk lazyChunk : lazyChunks) {
+      decoder.execute(lazyChunk.task);
+    }
+    // Stitching happens on this thread, so the World is only ever modified by the thread that runs the game.
+    for (LazyChunk lazyChunk : lazyChunks) {
+      if (lazyChunk.distance <= EAGER_CHUNK_DISTANCE) {
+        world.addChunk(lazyChunk.decode());
+      } else {
+        world.addEncodedChunk(lazyChunk.chunk, lazyChunk);
+      }
+    }
+    if (state.getHero().getLocation() != state.getHeroLocation()) {
+      throw new IOException("the hero is not in its location.");
+    }
+    state.setSaveName(file.getName());
+    // Appending to a log that ends with an incomplete save would make the saves after it unreadable.
+    if (snapshot.cleanLog) {
+      state.setSaveCheckpoint(file.getName(), world.getModificationCount());
+    }
+    return state;
+  }
+
+  /**
+   * Reads the latest committed records of a saved game without decoding them.
+   */
+  static Snapshot readSnapshot(File file) throws IOException {
+    Snapshot snapshot = new Snapshot();
+    long generation = readBaseFile(file, snapshot);
+    if (snapshot.core == null) {
+      throw new IOException("incomplete base file.");
+    }
+    snapshot.cleanLog = readLog(getLogFile(file), generation, snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Reads a base file into memory and puts its records into a snapshot without decoding their payloads.
+   *
+   * @return the generation of the base file
+   */
+  private static long readBaseFile(File file, Snapshot snapshot) throws IOException {
+    return parseBaseFile(readBytes(file), snapshot, getChunkStore(file));
+  }
+
+  /**
+   * Returns the contents of a file in a heap buffer.
+   *
+   * <p>Base files are not mapped, as a mapped file cannot be replaced on some platforms until the mapping is garbage
+   * collected, and the records of a snapshot may be referred to long after loading.
+   */
+  private static ByteBuffer readBytes(File file) throws IOException {
+    byte[] bytes = new byte[(int) file.length()];
+    DataInputStream in = openForReading(file);
+    try {
+      in.readFully(bytes);
+    } finally {
+      in.close();
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * Returns the hashes of the chunks of a base file.
+   */
+  static List<String> readChunkHashes(File file) throws IOException {
+    Snapshot snapshot = new Snapshot();
+    parseBaseFile(readBytes(file), snapshot, getChunkStore(file));
+    List<String> hashes = new ArrayList<String>(snapshot.chunks.size());
+    for (Record record : snapshot.chunks.values()) {
+      hashes.add(record.getHash());
+    }
+    return hashes;
+  }
+
+  private static ChunkStore getChunkStore(File file) {
+    return new ChunkStore(file.getAbsoluteFile().getParentFile());
+  }
+
+  private static long parseBaseFile(ByteBuffer buffer, Snapshot snapshot, ChunkStore store) throws IOException {
+    try {
+      checkHeader(buffer.getInt(), buffer.getInt());
+      long generation = buffer.getLong();
+      int codec = buffer.get();
+      buffer.position(buffer.position() + SaveMetadata.SIZE);
+      readBaseBody(buffer.slice(), codec, snapshot, store);
+      return generation;
+    } catch (BufferUnderflowException truncated) {
+      throw new IOException("incomplete base file.");
+    }
+  }
+
+  /**
+   * Reads the directory of a base file, which starts at the beginning of the buffer.
+   *
+   * @param store the ChunkStore that has the chunks or null if the chunks are in the buffer
+   */
+  private static void readBaseBody(ByteBuffer buffer, int codec, Snapshot snapshot, @Nullable ChunkStore store)
+      throws IOException {
+    if (codec != COMPRESSED && codec != UNCOMPRESSED) {
+      throw new IOException("unknown codec.");
+    }
+    int entries = buffer.getInt();
+    // How many bytes the chunks take in the store, which is only needed when saving.
+    buffer.getLong();
+    for (int i = 0; i < entries; i++) {
+      int type = buffer.get();
+      Point chunk = new Point(buffer.getInt(), buffer.getInt());
+      long offset = buffer.getLong();
+      int length = buffer.getInt();
+      int rawLength = buffer.getInt();
+      if (offset < 0 || length < 0 || rawLength < 0 || offset + length > buffer.limit()) {
+        throw new IOException("incomplete base file.");
+      }
+      ByteBuffer data = slice(buffer, (int) offset, length);
+      if (type == CHUNK) {
+        if (store != null && length != ChunkStore.HASH_SIZE) {
+          throw new IOException("invalid chunk hash.");
+        }
+        snapshot.chunks.put(chunk, new Record(type, chunk, data, codec == COMPRESSED, rawLength, store));
+      } else if (type == CORE) {
+        snapshot.core = new Record(type, chunk, data, codec == COMPRESSED, rawLength, null);
+      } else {
+        throw new IOException("unknown record type.");
+      }
+    }
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(offset);
+    duplicate.limit(offset + length);
+    return duplicate.slice();
+  }
+
+  /**
+   * Applies the saves of a log to a snapshot.
+   *
+   * @return true if the log does not exist or only has complete saves for the specified generation
+   */
+  private static boolean readLog(File log, long generation, Snapshot snapshot) throws IOException {
+    if (!log.exists()) {
+      return true;
+    }
+    // The log is never larger than the save it applies to, so it is read at once.
+    ByteBuffer buffer = readBytes(log);
+    try {
+      checkHeader(buffer.getInt(), buffer.getInt());
+      if (buffer.getLong() != generation) {
+        return false;
+      }
+      int codec = buffer.get();
+      if (codec == COMPRESSED) {
+        return readMembers(buffer, snapshot);
+      } else if (codec == UNCOMPRESSED) {
+        return readSaves(buffer, snapshot);
+      } else {
+        throw new IOException("unknown codec.");
+      }
+    } catch (BufferUnderflowException truncated) {
+      return false;
+    }
+  }
+
+  /**
+   * Applies the saves of the GZIP members of a compressed log to a snapshot. A save is only applied once the checksum
+   * of its member matches.
+   *
+   * @return true if the buffer ends right after a complete member
+   */
+  private static boolean readMembers(ByteBuffer buffer, Snapshot snapshot) {
+    while (buffer.hasRemaining()) {
+      ByteBuffer member = inflateMember(buffer);
+      if (member == null || !readSaves(member, snapshot)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads records into a snapshot until the end of the buffer. Records are only applied when their commit is read.
+   *
+   * @return true if the buffer ended right after a commit record
+   */
+  private static boolean readSaves(ByteBuffer buffer, Snapshot snapshot) {
+    Snapshot pending = new Snapshot();
+    try {
+      while (buffer.hasRemaining()) {
+        int type = buffer.get();
+        if (type == COMMIT) {
+          snapshot.apply(pending);
+          pending = new Snapshot();
+        } else if (type == CHUNK) {
+          Point chunk = new Point(buffer.getInt(), buffer.getInt());
+          pending.chunks.put(chunk, Record.of(type, chunk, readPayload(buffer)));
+        } else if (type == CORE) {
+          pending.core = Record.of(type, null, readPayload(buffer));
+        } else {
+          return false;
+        }
+      }
+      return pending.isEmpty();
+    } catch (BufferUnderflowException truncated) {
+      return false;
+    }
+  }
+
+  private static void checkHeader(int magic, int version) throws IOException {
+    if (magic != MAGIC || version != VERSION) {
+      throw new IOException("not a saved game of a supported version.");
+    }
+  }
+
+  private static long readHeader(DataInputStream in) throws IOException {
+    checkHeader(in.readInt(), in.readInt());
+    return in.readLong();
+  }
+
+  /**
+   * Returns the generation of a base file or -1 if it cannot be read.
+   */
+  static long readGeneration(File file) {
+    if (file.isFile()) {
+      try {
+        DataInputStream in = openForReading(file);
+        try {
+          return readHeader(in);
+        } finally {
+          in.close();
+        }
+      } catch (IOException ignored) {
+        // Fall to -1.
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Reads the SaveMetadata from the header of a base file.
+   */
+  static SaveMetadata readMetadata(File file) throws IOException {
+    DataInputStream in = openForReading(file);
+    try {
+      readHeader(in);
+      in.readUnsignedByte();
+      return SaveMetadata.readFrom(in);
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Returns how many bytes a base file takes together with the chunks it refers to in the ChunkStore. A log that grows
+   * larger than this is no longer worth appending to.
+   */
+  static long readSaveLength(File file) throws IOException {
+    DataInputStream in = openForReading(file);
+    try {
+      readHeader(in);
+      in.readUnsignedByte();
+      SaveMetadata.readFrom(in);
+      in.readInt();
+      return file.length() + in.readLong();
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Returns the codec of the records of a file.
+   */
+  private static int readCodec(File file) throws IOException {
+    DataInputStream in = openForReading(file);
+    try {
+      readHeader(in);
+      return in.readUnsignedByte();
+    } finally {
+      in.close();
+    }
+  }
+
+  private static ByteBuffer readPayload(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    ByteBuffer payload = slice(buffer, buffer.position(), length);
+    buffer.position(buffer.position() + length);
+    return payload;
+  }
+
+  private static byte[] serialize(Object object) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    FSTObjectOutput objectOutStream = new FSTObjectOutput(bytes);
+    objectOutStream.writeObject(object);
+    objectOutStream.close();
+    return bytes.toByteArray();
+  }
+
+  private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    FSTObjectInput objectInStream = new FSTObjectInput(new ByteArrayInputStream(bytes));
+    Object object = objectInStream.readObject();
+    objectInStream.close();
+    return object;
+  }
+
+  private static DataOutputStream openForWriting(File file, boolean append) throws IOException {
+    OutputStream stream = new FileOutputStream(file, append);
+    return new DataOutputStream(new BufferedOutputStream(stream));
+  }
+
+  private static DataInputStream openForReading(File file) throws IOException {
+    return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+  }
+
+  /**
+   * Moves a file over another one.
+   */
+  private static void replace(File source, File target) throws IOException {
+    if (!source.renameTo(target)) {
+      // Some platforms do not rename over existing files.
+      if (!target.delete() || !source.renameTo(target)) {
+        throw new IOException("could not replace " + target.getName() + ".");
+      }
+    }
+  }
+
+  /**
+   * The serialized records of a save that was prepared but not yet written to disk.
+   */
+  static final class PendingSave {
+
+    private final File file;
+    private final boolean incremental;
+    private final byte[] records;
+    private final SaveMetadata metadata;
+
+    PendingSave(File file, boolean incremental, byte[] records, SaveMetadata metadata) {
+      this.file = file;
+      this.incremental = incremental;
+      this.records = records;
+      this.metadata = metadata;
+    }
+
+    File getFile() {
+      return file;
+    }
+
+    SaveMetadata getMetadata() {
+      return metadata;
+    }
+
+    /**
+     * Returns how many bytes of records this save writes.
+     */
+    long getSize() {
+      return records.length;
+    }
+
+    /**
+     * Writes the records to disk. Saves of the same file must be written in the order in which they were prepared.
+     */
+    void write() throws IOException {
+      String path = file.getPath();
+      if (incremental && staleFiles.contains(path)) {
+        throw new IOException("an earlier save to " + file.getName() + " failed.");
+      }
+      try {
+        if (incremental) {
+          appendToLog();
+        } else {
+          writeBaseFile();
+          staleFiles.remove(path);
+        }
+      } catch (IOException bad) {
+        // The chunks of this save will not be written again by the next incremental save.
+        staleFiles.add(path);
+        throw bad;
+      }
+    }
+
+    private void writeBaseFile() throws IOException {
+      long oldGeneration = readGeneration(file);
+      List<String> oldHashes = Collections.emptyList();
+      if (file.exists()) {
+        try {
+          oldHashes = readChunkHashes(file);
+        } catch (IOException unreadable) {
+          // The store rebuilds its references.
+          oldHashes = null;
+        }
+      }
+      long generation = Math.max(System.currentTimeMillis(), oldGeneration + 1);
+      File temporary = new File(file.getPath() + TEMPORARY_SUFFIX);
+      ChunkStore store = getChunkStore(file);
+      DataOutputStream out = openForWriting(temporary, false);
+      List<String> hashes;
+      try {
+        writeHeader(out, generation, CODEC);
+        out.write(metadata.toByteArray());
+        hashes = writeBaseBody(out, records, CODEC, COMPRESSION_LEVEL, store);
+      } finally {
+        out.close();
+      }
+      replace(temporary, file);
+      try {
+        store.replaceReferences(file.getName(), generation, hashes, oldGeneration, oldHashes);
+      } catch (IOException bad) {
+        // The save was written. The store rebuilds its references the next time, as they do not match the base files.
+        DungeonLogger.warning("Could not update the references of the chunk store: " + bad.getMessage());
+      }
+      File log = getLogFile(file);
+      // A log that could not be deleted is ignored when loading, as its generation is older.
+      if (log.exists() && !log.delete()) {
+        DungeonLogger.warning("Could not delete " + log.getName() + ".");
+      }
+    }
+
+    private void appendToLog() throws IOException {
+      File log = getLogFile(file);
+      boolean newLog = !log.exists();
+      long generation = readGeneration(file);
+      // The saves appended to a log must have the codec of its header.
+      int codec = newLog ? CODEC : readCodec(log);
+      DataOutputStream out = openForWriting(log, true);
+      try {
+        if (newLog) {
+          writeHeader(out, generation, codec);
+        }
+        writeLogBody(out, codec, records);
+      } finally {
+        out.close();
+      }
+      // This also keeps the base file first when saves are sorted by modification date.
+      writeMetadata();
+    }
+
+    /**
+     * Overwrites the SaveMetadata in the header of the base file.
+     */
+    private void writeMetadata() throws IOException {
+      RandomAccessFile base = new RandomAccessFile(file, "rw");
+      try {
+        base.seek(HEADER_SIZE);
+        base.write(metadata.toByteArray());
+      } finally {
+        base.close();
+      }
+    }
+
+  }
+
+  /**
+   * A GZIPOutputStream with a Deflater level that writes a single member and leaves the underlying stream open.
+   */
+  private static final class MemberOutputStream extends GZIPOutputStream {
+
+    MemberOutputStream(OutputStream out, int level) throws IOException {
+      super(out, BUFFER_SIZE);
+      def.setLevel(level);
+    }
+
+    /**
+     * Writes the rest of the member and releases the Deflater. This stream must not be used afterwards.
+     */
+    void finishMember() throws IOException {
+      finish();
+      def.end();
+    }
+
+  }
+
+  /**
+   * A record whose payload may still be in the buffer of the base file.
+   */
+  static final class Record {
+
+    private final int type;
+    private final Point chunk;
+    private final ByteBuffer data;
+    private final boolean compressed;
+    private final int rawLength;
+    // The ChunkStore that has the payload, whose hash is the data, or null if the data is the payload.
+    private final ChunkStore store;
+
+    private Record(int type, Point chunk, ByteBuffer data, boolean compressed, int rawLength, ChunkStore store) {
+      this.type = type;
+      this.chunk = chunk;
+      this.data = data;
+      this.compressed = compressed;
+      this.rawLength = rawLength;
+      this.store = store;
+    }
+
+    static Record of(int type, Point chunk, byte[] payload) {
+      return of(type, chunk, ByteBuffer.wrap(payload));
+    }
+
+    static Record of(int type, Point chunk, ByteBuffer payload) {
+      return new Record(type, chunk, payload, false, payload.remaining(), null);
+    }
+
+    /**
+     * Returns the hash of the payload of a record whose payload is in a ChunkStore.
+     */
+    String getHash() {
+      byte[] hash = new byte[data.remaining()];
+      data.duplicate().get(hash);
+      return ChunkStore.toHexadecimal(hash);
+    }
+
+    /**
+     * Returns the uncompressed payload of this record.
+     */
+    byte[] getPayload() throws IOException {
+      if (store != null) {
+        byte[] stored = store.read(getHash());
+        if (stored.length == 0) {
+          throw new IOException("empty chunk.");
+        }
+        ByteBuffer storedData = ByteBuffer.wrap(stored, 1, stored.length - 1).slice();
+        return new Record(type, chunk, storedData, stored[0] == COMPRESSED, rawLength, null).getPayload();
+      }
+      if (compressed) {
+        return inflate(data, rawLength);
+      }
+      if (data.hasArray() && data.arrayOffset() == 0 && data.array().length == data.remaining()) {
+        return data.array();
+      }
+      byte[] payload = new byte[data.remaining()];
+      data.duplicate().get(payload);
+      return payload;
+    }
+
+  }
+
+  /**
+   * A chunk that was loaded but not yet added to the World. It is decoded by whichever thread runs its task first.
+   *
+   * <p>Decoding only creates new objects and reads the presets. The Hero, which is also linked to its Location, is only
+   * in the chunk the game waits for first. Locations and Creatures are linked to the World and to their Locations as
+   * they are decoded.
+   */
+  private static final class LazyChunk implements EncodedChunk, Comparable<LazyChunk> {
+
+    private final Point chunk;
+    private final GameState state;
+    // The Chebyshev distance from the chunk of the Hero, in chunks.
+    private final int distance;
+    private final FutureTask<Map<Point, Location>> task;
+    private Record record;
+
+    LazyChunk(Point chunk, Record record, GameState state, Point heroChunk) {
+      this.chunk = chunk;
+      this.record = record;
+      this.state = state;
+      this.distance = Math.max(Math.abs(chunk.getX() - heroChunk.getX()), Math.abs(chunk.getY() - heroChunk.getY()));
+      this.task = new FutureTask<Map<Point, Location>>(new Callable<Map<Point, Location>>() {
+        @Override
+        public Map<Point, Location> call() throws IOException {
+          return decodeChunk(LazyChunk.this.chunk, getPayload(), LazyChunk.this.state);
+        }
+      });
+    }
+
+    @Override
+    public Map<Point, Location> decode() throws IOException {
+      // Does nothing if the decoder already started the task.
+      task.run();
+      try {
+        return task.get();
+      } catch (InterruptedException interrupted) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted while decoding a chunk.");
+      } catch (ExecutionException failed) {
+        Throwable cause = failed.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        } else {
+          throw new RuntimeException(cause);
+        }
+      }
+    }
+
+    @Override
+    public synchronized byte[] getPayload() throws IOException {
+      if (record.compressed || record.store != null) {
+        // Keep the payload, as the base file may be replaced and the ChunkStore may then delete the payload.
+        record = Record.of(CHUNK, chunk, record.getPayload());
+      }
+      return record.getPayload();
+    }
+
+    @Override
+    public int compareTo(@NotNull LazyChunk other) {
+      return distance < other.distance ? -1 : (distance == other.distance ? 0 : 1);
+    }
+
+  }
+
+  /**
+   * The latest records of a saved game.
+   */
+  static final class Snapshot {
+
+    private final Map<Point, Record> chunks = new HashMap<Point, Record>();
+    private Record core;
+    // Whether the log does not exist or only has complete saves for the base file.
+    private boolean cleanLog;
+
+    Record getCore() {
+      return core;
+    }
+
+    @Nullable
+    Record getChunk(Point chunk) {
+      return chunks.get(chunk);
+    }
+
+    /**
+     * Returns whether saves may be appended to the log of the saved game this snapshot was read from.
+     */
+    boolean isCleanLog() {
+      return cleanLog;
+    }
+
+    boolean isEmpty() {
+      return chunks.isEmpty() && core == null;
+    }
+
+    void apply(Snapshot save) {
+      chunks.putAll(save.chunks);
+      if (save.core != null) {
+        core = save.core;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the saves in a folder, which is kept in a file in the folder.
+ *
+ * <p>The index has the size, the modification date and the SaveMetadata of every save. A save is only read again when
+ * its size or modification date differ from those in the index, so listing the saves of a folder reads a single file.
+ *
+ * <p>The methods of this class may be called by any thread.
+ */
+final class SaveIndex {
+
+  private static final String INDEX_NAME = "saves.index";
+  private static final int MAGIC = 0x44494458;
+  private static final int VERSION = 1;
+
+  private final File folder;
+  // The entries of the index by file name, loaded when first needed.
+  private Map<String, Entry> entries;
+
+  SaveIndex(File folder) {
+    this.folder = folder;
+  }
+
+  /**
+   * Returns the saves in the folder, from the most recently modified to the least recently modified one.
+   *
+   * @return a List of entries or null if the folder could not be listed
+   */
+  @Nullable
+  synchronized List<Entry> list() {
+    File[] files = folder.listFiles(DungeonFilenameFilters.getExtensionFilter());
+    if (files == null) {
+      return null;
+    }
+    Map<String, Entry> oldEntries = getEntries();
+    Map<String, Entry> newEntries = new HashMap<String, Entry>();
+    boolean changed = false;
+    for (File file : files) {
+      if (file.isFile()) {
+        Entry entry = oldEntries.get(file.getName());
+        if (entry == null || !entry.isUpToDate(file)) {
+          entry = new Entry(file, readMetadata(file));
+          changed = true;
+        }
+        newEntries.put(file.getName(), entry);
+      }
+    }
+    entries = newEntries;
+    if (changed || newEntries.size() != oldEntries.size()) {
+      store();
+    }
+    List<Entry> list = new ArrayList<Entry>(newEntries.values());
+    Collections.sort(list, new Comparator<Entry>() {
+      @Override
+      public int compare(Entry a, Entry b) {
+        return Long.valueOf(b.lastModified).compareTo(a.lastModified);
+      }
+    });
+    return list;
+  }
+
+  /**
+   * Records that a save was just written.
+   */
+  synchronized void update(File file, SaveMetadata metadata) {
+    getEntries().put(file.getName(), new Entry(file, metadata));
+    store();
+  }
+
+  @Nullable
+  private static SaveMetadata readMetadata(File file) {
+    try {
+      return SaveFile.readMetadata(file);
+    } catch (IOException unreadable) {
+      return null;
+    }
+  }
+
+  private Map<String, Entry> getEntries() {
+    if (entries == null) {
+      entries = new HashMap<String, Entry>();
+      File index = new File(folder, INDEX_NAME);
+      if (index.isFile()) {
+        try {
+          load(index);
+        } catch (IOException bad) {
+          // The saves are read again instead.
+          entries.clear();
+          DungeonLogger.warning("Ignored invalid " + INDEX_NAME + ": " + bad.getMessage());
+        }
+      }
+    }
+    return entries;
+  }
+
+  private void load(File index) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(index)));
+    try {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("not an index of a supported version.");
+      }
+      int size = in.readInt();
+      for (int i = 0; i < size; i++) {
+        String name = in.readUTF();
+        long length = in.readLong();
+        long lastModified = in.readLong();
+        SaveMetadata metadata = in.readBoolean() ? SaveMetadata.readFrom(in) : null;
+        entries.put(name, new Entry(new File(folder, name), length, lastModified, metadata));
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Writes the entries to the index file, replacing it only once it was completely written.
+   */
+  private void store() {
+    if (!folder.isDirectory()) {
+      return;
+    }
+    File index = new File(folder, INDEX_NAME);
+    File temporary = new File(folder, INDEX_NAME + ".tmp");
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+      try {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+          out.writeUTF(entry.file.getName());
+          out.writeLong(entry.length);
+          out.writeLong(entry.lastModified);
+          out.writeBoolean(entry.metadata != null);
+          if (entry.metadata != null) {
+            out.write(entry.metadata.toByteArray());
+          }
+        }
+      } finally {
+        out.close();
+      }
+      if (!temporary.renameTo(index) && (!index.delete() || !temporary.renameTo(index))) {
+        throw new IOException("could not replace " + INDEX_NAME + ".");
+      }
+    } catch (IOException bad) {
+      DungeonLogger.warning("Could not write " + INDEX_NAME + ": " + bad.getMessage());
+    }
+  }
+
+  /**
+   * A save as it was when it was last indexed.
+   */
+  static final class Entry {
+
+    private final File file;
+    private final long length;
+    private final long lastModified;
+    private final SaveMetadata metadata;
+
+    private Entry(File file, long length, long lastModified, @Nullable SaveMetadata metadata) {
+      this.file = file;
+      this.length = length;
+      this.lastModified = lastModified;
+      this.metadata = metadata;
+    }
+
+    private Entry(File file, @Nullable SaveMetadata metadata) {
+      this(file, SaveFile.getTotalLength(file), file.lastModified(), metadata);
+    }
+
+    private boolean isUpToDate(File file) {
+      return file.lastModified() == lastModified && SaveFile.getTotalLength(file) == length;
+    }
+
+    File getFile() {
+      return file;
+    }
+
+    /**
+     * Returns how many bytes the base file and the log of the save take together.
+     */
+    long getLength() {
+      return length;
+    }
+
+    long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * Returns the SaveMetadata of the save or null if it could not be read, as with saves of other versions.
+     */
+    @Nullable
+    SaveMetadata getMetadata() {
+      return metadata;
+    }
+
+  }
+
+}
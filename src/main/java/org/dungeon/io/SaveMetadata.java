@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.dungeon.date.Date;
+import org.dungeon.game.GameState;
+import org.dungeon.game.Point;
+import org.dungeon.game.World;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A summary of a saved game that is kept in the header of its base file, so that saves can be listed without being
+ * loaded.
+ */
+final class SaveMetadata {
+
+  // How many bytes the metadata takes in the header.
+  static final int SIZE = 8 + 4 + 4 + 8 + 4;
+
+  private final long worldTime;
+  private final int heroX;
+  private final int heroY;
+  private final long playTime;
+  private final int killCount;
+
+  SaveMetadata(long worldTime, int heroX, int heroY, long playTime, int killCount) {
+    this.worldTime = worldTime;
+    this.heroX = heroX;
+    this.heroY = heroY;
+    this.playTime = playTime;
+    this.killCount = killCount;
+  }
+
+  /**
+   * Summarizes a GameState. Must be called by the thread that runs the game.
+   */
+  static SaveMetadata of(GameState state) {
+    World world = state.getWorld();
+    long worldTime = world.getWorldDate().getTime();
+    long playTime = worldTime - world.getStartDate().getTime();
+    Point position = state.getHeroPosition();
+    int kills = state.getStatistics().getBattleStatistics().getKillCount();
+    return new SaveMetadata(worldTime, position.getX(), position.getY(), playTime, kills);
+  }
+
+  static SaveMetadata readFrom(DataInput in) throws IOException {
+    return new SaveMetadata(in.readLong(), in.readInt(), in.readInt(), in.readLong(), in.readInt());
+  }
+
+  /**
+   * Returns the SIZE bytes that represent this metadata.
+   */
+  byte[] toByteArray() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(SIZE);
+    DataOutputStream out = new DataOutputStream(bytes);
+    try {
+      out.writeLong(worldTime);
+      out.writeInt(heroX);
+      out.writeInt(heroY);
+      out.writeLong(playTime);
+      out.writeInt(killCount);
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return bytes.toByteArray();
+  }
+
+  Date getWorldDate() {
+    return Date.fromTime(worldTime);
+  }
+
+  Point getHeroPosition() {
+    return new Point(heroX, heroY);
+  }
+
+  /**
+   * Returns how much in-game time passed since the World was created, in milliseconds.
+   */
+  long getPlayTime() {
+    return playTime;
+  }
+
+  int getKillCount() {
+    return killCount;
+  }
+
+}
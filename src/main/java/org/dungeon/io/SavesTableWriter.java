@@ -17,15 +17,18 @@
 
 package org.dungeon.io;
 
+import static org.dungeon.date.DungeonTimeUnit.DAY;
+import static org.dungeon.date.DungeonTimeUnit.HOUR;
+
 import org.dungeon.date.EarthTimeUnit;
 import org.dungeon.date.TimeStringBuilder;
 import org.dungeon.util.Table;
 
 import org.joda.time.Period;
 
-import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 
 /**
  * This class provides a method to write to the screen a table with the existing saves.
@@ -39,24 +42,37 @@ public final class SavesTableWriter {
   }
 
   public static void writeSavesFolderTable() {
-    File[] files = Loader.getSortedArrayOfSavedFiles();
-    if (files != null) {
-      if (files.length != 0) {
-        Table table = new Table("Name", "Size", "Last modified");
+    List<SaveIndex.Entry> saves = Loader.getSaves();
+    if (saves != null) {
+      if (!saves.isEmpty()) {
+        Table table = new Table("Name", "Size", "Last modified", "Played", "Position", "Kills");
         int fileCount = 0;
-        int byteCount = 0;
-        for (File file : files) {
+        long byteCount = 0;
+        for (SaveIndex.Entry save : saves) {
           fileCount += 1;
-          byteCount += file.length();
-          Date lastModified = new Date(file.lastModified());
+          long length = save.getLength();
+          byteCount += length;
+          Date lastModified = new Date(save.getLastModified());
           String periodString = makePeriodString(lastModified.getTime(), System.currentTimeMillis());
           String lastModifiedString = String.format("%s (%s)", LAST_MODIFIED_FORMAT.format(lastModified), periodString);
-          table.insertRow(file.getName(), IOUtils.bytesToHuman(file.length()), lastModifiedString);
-        }
-        if (fileCount > 1) {
-          table.insertSeparator();
-          table.insertRow("Sum of these " + fileCount + " files", IOUtils.bytesToHuman((byteCount)));
+          String name = save.getFile().getName();
+          SaveMetadata metadata = save.getMetadata();
+          if (metadata != null) {
+            String playTimeString = makePlayTimeString(metadata.getPlayTime());
+            String position = metadata.getHeroPosition().toString();
+            String kills = String.valueOf(metadata.getKillCount());
+            table.insertRow(name, IOUtils.bytesToHuman(length), lastModifiedString, playTimeString, position, kills);
+          } else {
+            table.insertRow(name, IOUtils.bytesToHuman(length), lastModifiedString, "Unknown");
+          }
         }
+        long chunksLength = Loader.getChunkStoreLength();
+        byteCount += chunksLength;
+        table.insertSeparator();
+        table.insertRow("Shared chunks", IOUtils.bytesToHuman(chunksLength));
+        table.insertSeparator();
+        String total = "Total of " + fileCount + (fileCount == 1 ? " save" : " saves");
+        table.insertRow(total, IOUtils.bytesToHuman(byteCount));
         table.print();
       } else {
         Writer.writeString("Saves folder is empty.");
@@ -66,6 +82,15 @@ public final class SavesTableWriter {
     }
   }
 
+  /**
+   * Makes a String with the in-game days and hours of a period, e.g.: 3d 04h.
+   */
+  private static String makePlayTimeString(long playTime) {
+    long days = playTime / DAY.milliseconds;
+    long hours = playTime % DAY.milliseconds / HOUR.milliseconds;
+    return String.format("%dd %02dh", days, hours);
+  }
+
   private static String makePeriodString(long start, long end) {
     Period period = new Period(start, end);
     TimeStringBuilder builder = new TimeStringBuilder();
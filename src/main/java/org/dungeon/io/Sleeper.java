@@ -27,12 +27,14 @@ public final class Sleeper {
   }
 
   /**
-   * Sleeps for a specified amount of milliseconds.
+   * Sleeps for a specified amount of milliseconds. Buffered output is written first, so that it is shown while the game
+   * sleeps.
    *
    * @param milliseconds how many milliseconds should this thread sleep for
    */
   public static void sleep(long milliseconds) {
     if (milliseconds > 0) {
+      Writer.flush();
       try {
         Thread.sleep(milliseconds);
       } catch (InterruptedException logged) {
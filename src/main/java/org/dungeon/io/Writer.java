@@ -28,11 +28,20 @@ import java.awt.Color;
 /**
  * Writer class that encapsulates all Input/Output operations. This is the only class that should call the writing
  * methods of the game window.
+ *
+ * <p>While a turn is rendered, output is buffered and written to the window at once when the turn ends or when the game
+ * pauses, so that the window is updated once instead of once per string.
  */
 public final class Writer {
 
   // How many milliseconds the game 'lags' after writing a string of battle output.
   private static final int WRITE_BATTLE_STRING_WAIT = 300;
+  private static final TextPaneWritingSpecifications SCROLL_DOWN = new TextPaneWritingSpecifications(true);
+
+  // The output that was not written to the window yet, or null if output is not being buffered.
+  private static DungeonStringBuilder buffer;
+  // The specifications of the last write to the buffer, which are used when the buffer is flushed.
+  private static TextPaneWritingSpecifications bufferSpecifications;
 
   private Writer() { // Ensure that this class cannot be instantiated.
     throw new AssertionError();
@@ -88,8 +97,7 @@ public final class Writer {
     DungeonStringBuilder builder = new DungeonStringBuilder();
     builder.setColor(color);
     builder.append(string);
-    TextPaneWritingSpecifications specifications = new TextPaneWritingSpecifications(scrollDown);
-    write(builder, specifications);
+    write(builder, scrollDown ? SCROLL_DOWN : new TextPaneWritingSpecifications(false));
     if (wait > 0) {
       Sleeper.sleep(wait);
     }
@@ -118,7 +126,7 @@ public final class Writer {
    * @param writable a Writable object, not empty
    */
   public static void write(Writable writable) {
-    write(writable, new TextPaneWritingSpecifications(true));
+    write(writable, SCROLL_DOWN);
   }
 
   /**
@@ -127,8 +135,42 @@ public final class Writer {
    * @param writable a Writable object, not empty
    * @param specifications a TextPaneWritingSpecifications object
    */
-  public static void write(Writable writable, TextPaneWritingSpecifications specifications) {
-    Game.getGameWindow().scheduleWriteToTextPane(writable, specifications);
+  public static synchronized void write(Writable writable, TextPaneWritingSpecifications specifications) {
+    if (buffer != null) {
+      // Adjacent strings of the same color become a single string.
+      buffer.append(writable);
+      bufferSpecifications = specifications;
+    } else {
+      Game.getGameWindow().scheduleWriteToTextPane(writable, specifications);
+    }
+  }
+
+  /**
+   * Starts buffering output until stopBuffering is called.
+   */
+  public static synchronized void startBuffering() {
+    if (buffer == null) {
+      buffer = new DungeonStringBuilder();
+    }
+  }
+
+  /**
+   * Writes the buffered output to the window, if there is any. Should be called before the game pauses, so that the
+   * output written so far is shown during the pause.
+   */
+  public static synchronized void flush() {
+    if (buffer != null && !buffer.isEmpty()) {
+      Game.getGameWindow().scheduleWriteToTextPane(buffer, bufferSpecifications);
+      buffer = new DungeonStringBuilder();
+    }
+  }
+
+  /**
+   * Writes the buffered output to the window and stops buffering output.
+   */
+  public static synchronized void stopBuffering() {
+    flush();
+    buffer = null;
   }
 
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.map;
+
+import org.dungeon.game.Point;
+import org.dungeon.util.DungeonMath;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The symbols and colors of the Points the Hero has seen, kept in square tiles of a fixed side.
+ *
+ * <p>Points are written once, when they are first seen, so drawing a map only copies rows of the tiles under it instead
+ * of looking up every Point in the World.
+ */
+public final class MapRaster {
+
+  static final char UNEXPLORED_SYMBOL = '~';
+  static final Color UNEXPLORED_COLOR = Color.GRAY;
+
+  private static final int TILE_SIDE = 32;
+
+  private final Map<Point, Tile> tiles = new HashMap<Point, Tile>();
+
+  /**
+   * Returns the offset of a point coordinate in its tile.
+   */
+  private static int toTileOffset(int coordinate, int tileCoordinate) {
+    return coordinate - tileCoordinate * TILE_SIDE;
+  }
+
+  /**
+   * Sets the symbol and the color of a Point.
+   *
+   * @param point the Point, not null
+   * @param symbol the symbol
+   * @param color the Color, not null
+   */
+  public void set(@NotNull Point point, char symbol, @NotNull Color color) {
+    int tileX = DungeonMath.floorDivide(point.getX(), TILE_SIDE);
+    int tileY = DungeonMath.floorDivide(point.getY(), TILE_SIDE);
+    Point key = new Point(tileX, tileY);
+    Tile tile = tiles.get(key);
+    if (tile == null) {
+      tile = new Tile();
+      tiles.put(key, tile);
+    }
+    int index = toTileOffset(point.getY(), tileY) * TILE_SIDE + toTileOffset(point.getX(), tileX);
+    tile.symbols[index] = symbol;
+    tile.colors[index] = color;
+  }
+
+  /**
+   * Copies a rectangle of this raster into the specified matrices. Rows go from the top of the rectangle to its bottom,
+   * so the first row has the greatest y coordinate. Points that were never set are unexplored.
+   *
+   * @param left the x coordinate of the first column
+   * @param top the y coordinate of the first row
+   * @param symbols the matrix of symbols, with as many rows and columns as the rectangle, not null
+   * @param colors the matrix of Colors, with as many rows and columns as the rectangle, not null
+   */
+  void copy(int left, int top, @NotNull char[][] symbols, @NotNull Color[][] colors) {
+    for (int row = 0; row < symbols.length; row++) {
+      int y = top - row;
+      int tileY = DungeonMath.floorDivide(y, TILE_SIDE);
+      int rowOffset = toTileOffset(y, tileY) * TILE_SIDE;
+      int column = 0;
+      while (column < symbols[row].length) {
+        int x = left + column;
+        int tileX = DungeonMath.floorDivide(x, TILE_SIDE);
+        int tileOffset = toTileOffset(x, tileX);
+        int length = Math.min(TILE_SIDE - tileOffset, symbols[row].length - column);
+        Tile tile = tiles.get(new Point(tileX, tileY));
+        if (tile == null) {
+          Arrays.fill(symbols[row], column, column + length, UNEXPLORED_SYMBOL);
+          Arrays.fill(colors[row], column, column + length, UNEXPLORED_COLOR);
+        } else {
+          System.arraycopy(tile.symbols, rowOffset + tileOffset, symbols[row], column, length);
+          System.arraycopy(tile.colors, rowOffset + tileOffset, colors[row], column, length);
+        }
+        column += length;
+      }
+    }
+  }
+
+  /**
+   * A square of the raster. Its cells are stored row by row, from the lowest y coordinate to the greatest.
+   */
+  private static final class Tile {
+
+    private final char[] symbols = new char[TILE_SIDE * TILE_SIDE];
+    private final Color[] colors = new Color[TILE_SIDE * TILE_SIDE];
+
+    Tile() {
+      Arrays.fill(symbols, UNEXPLORED_SYMBOL);
+      Arrays.fill(colors, UNEXPLORED_COLOR);
+    }
+
+  }
+
+}
@@ -18,55 +18,51 @@
 package org.dungeon.map;
 
 import org.dungeon.game.Game;
+import org.dungeon.game.LocationDescription;
 import org.dungeon.game.Point;
 import org.dungeon.game.World;
 import org.dungeon.gui.GameWindow;
-import org.dungeon.stats.ExplorationStatistics;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.awt.Color;
+
 /**
  * WorldMap class that represents an ASCII map from the surroundings of the player.
  */
 public class WorldMap {
 
-  private final WorldMapSymbol[][] matrix;
+  private static final char HERO_SYMBOL = '@';
+  private static final Color HERO_COLOR = Color.WHITE;
+
+  private final char[][] symbols;
+  private final Color[][] colors;
   private final IterationLimits limits;
   private final String stringRepresentation;
 
   /**
-   * Initializes the WorldMap with a proper IterationLimits object and a matrix of null objects.
+   * Initializes the WorldMap with a proper IterationLimits object and empty matrices of symbols and colors.
    */
   private WorldMap() {
     Point center = Game.getGameState().getHeroPosition();
     int cols = GameWindow.COLS;
     int rows = GameWindow.ROWS - 1;
     limits = new IterationLimits(center, cols, rows);
-    matrix = new WorldMapSymbol[rows][cols]; // Add 1 to account for newlines.
+    symbols = new char[rows][cols];
+    colors = new Color[rows][cols];
     stringRepresentation = rows + "x" + cols + " map.";
   }
 
+  /**
+   * Makes a WorldMap of the Points the Hero has seen around the Hero, copied from the MapRaster of the exploration
+   * statistics.
+   */
   @NotNull
   public static WorldMap makeWorldMap() {
     WorldMap map = new WorldMap();
-    World world = Game.getGameState().getWorld();
-    Point heroPosition = Game.getGameState().getHeroPosition();
-    ExplorationStatistics explorationStatistics = Game.getGameState().getStatistics().getExplorationStatistics();
-
-    for (int curY = map.limits.minY; curY >= map.limits.maxY; curY--) {
-      for (int curX = map.limits.minX; curX <= map.limits.maxX; curX++) {
-        Point currentPosition = new Point(curX, curY);
-        if (currentPosition.equals(heroPosition)) {
-          map.matrix[map.limits.minY - curY][curX - map.limits.minX] = WorldMapSymbol.getHeroSymbol();
-        } else if (explorationStatistics.hasBeenSeen(currentPosition)) {
-          WorldMapSymbol symbol = WorldMapSymbol.makeSymbol(world.getLocation(currentPosition));
-          map.matrix[map.limits.minY - curY][curX - map.limits.minX] = symbol;
-        } else {
-          map.matrix[map.limits.minY - curY][curX - map.limits.minX] = WorldMapSymbol.getNotYetGeneratedSymbol();
-        }
-      }
-    }
-
+    MapRaster raster = Game.getGameState().getStatistics().getExplorationStatistics().getMapRaster();
+    raster.copy(map.limits.minX, map.limits.minY, map.symbols, map.colors);
+    map.drawHero();
     return map;
   }
 
@@ -74,25 +70,29 @@ public class WorldMap {
   public static WorldMap makeDebugWorldMap() {
     WorldMap map = new WorldMap();
     World world = Game.getGameState().getWorld();
-    Point heroPosition = Game.getGameState().getHeroPosition();
-
     for (int curY = map.limits.minY; curY >= map.limits.maxY; curY--) {
       for (int curX = map.limits.minX; curX <= map.limits.maxX; curX++) {
-        Point currentPosition = new Point(curX, curY);
-        if (currentPosition.equals(heroPosition)) {
-          map.matrix[map.limits.minY - curY][curX - map.limits.minX] = WorldMapSymbol.getHeroSymbol();
-        } else {
-          WorldMapSymbol symbol = WorldMapSymbol.makeSymbol(world.getLocation(currentPosition));
-          map.matrix[map.limits.minY - curY][curX - map.limits.minX] = symbol;
-        }
+        LocationDescription description = world.getLocation(new Point(curX, curY)).getDescription();
+        map.symbols[map.limits.minY - curY][curX - map.limits.minX] = description.getSymbol();
+        map.colors[map.limits.minY - curY][curX - map.limits.minX] = description.getColor();
       }
     }
-
+    map.drawHero();
     return map;
   }
 
-  WorldMapSymbol[][] getSymbolMatrix() {
-    return matrix;
+  private void drawHero() {
+    Point heroPosition = Game.getGameState().getHeroPosition();
+    symbols[limits.minY - heroPosition.getY()][heroPosition.getX() - limits.minX] = HERO_SYMBOL;
+    colors[limits.minY - heroPosition.getY()][heroPosition.getX() - limits.minX] = HERO_COLOR;
+  }
+
+  char[][] getSymbolMatrix() {
+    return symbols;
+  }
+
+  Color[][] getColorMatrix() {
+    return colors;
   }
 
   @Override
@@ -22,6 +22,8 @@ import org.dungeon.io.Writer;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.awt.Color;
+
 public final class WorldMapWriter {
 
   private WorldMapWriter() {
@@ -31,18 +33,27 @@ public final class WorldMapWriter {
   /**
    * Writes a WorldMap to the screen. This erases all the content currently on the screen.
    *
+   * <p>Each run of symbols of the same color is appended as a single String.
+   *
    * @param map a WorldMap, not null
    */
   public static void writeMap(@NotNull WorldMap map) {
     DungeonStringBuilder dungeonStringBuilder = new DungeonStringBuilder();
-    WorldMapSymbol[][] worldMapSymbolMatrix = map.getSymbolMatrix();
-    for (int i = 0; i < worldMapSymbolMatrix.length; i++) {
-      for (WorldMapSymbol symbol : worldMapSymbolMatrix[i]) {
-        // OK as setColor verifies if the color change is necessary (does not replace a color by itself).
-        dungeonStringBuilder.setColor(symbol.getColor());
-        dungeonStringBuilder.append(symbol.getCharacterAsString());
+    char[][] symbolMatrix = map.getSymbolMatrix();
+    Color[][] colorMatrix = map.getColorMatrix();
+    for (int i = 0; i < symbolMatrix.length; i++) {
+      char[] symbols = symbolMatrix[i];
+      Color[] colors = colorMatrix[i];
+      int runStart = 0;
+      for (int j = 1; j <= symbols.length; j++) {
+        if (j == symbols.length || !colors[j].equals(colors[runStart])) {
+          // OK as setColor verifies if the color change is necessary (does not replace a color by itself).
+          dungeonStringBuilder.setColor(colors[runStart]);
+          dungeonStringBuilder.append(new String(symbols, runStart, j - runStart));
+          runStart = j;
+        }
       }
-      if (i < worldMapSymbolMatrix.length - 1) {
+      if (i < symbolMatrix.length - 1) {
         dungeonStringBuilder.append("\n");
       }
     }
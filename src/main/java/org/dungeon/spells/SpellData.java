@@ -139,6 +139,7 @@ public final class SpellData {
           if (target != null) {
             Engine.rollDateAndRefresh(SECONDS_TO_CAST_VEIL_OF_DARKNESS);
             target.getLightSource().disable();
+            target.getLocation().invalidateLuminosity();
             Writer.writeString("You casted " + getName() + " on " + target.getName().getSingular() + ".");
           }
         }
@@ -157,6 +158,7 @@ public final class SpellData {
           if (target != null) {
             Engine.rollDateAndRefresh(SECONDS_TO_CAST_UNVEIL);
             target.getLightSource().enable();
+            target.getLocation().invalidateLuminosity();
             Writer.writeString("You casted " + getName() + " on " + target.getName().getSingular() + ".");
           }
         }
@@ -35,7 +35,7 @@ final class SpellDefinition implements Serializable {
   public final Name name;
 
   public SpellDefinition(String id, String name) {
-    this.id = new Id(id);
+    this.id = Id.valueOf(id);
     this.name = NameFactory.newInstance(name);
   }
 
@@ -56,6 +56,17 @@ public class BattleStatistics implements Serializable {
     return causeOfDeathCounterMap;
   }
 
+  /**
+   * Returns how many battles the Hero has won so far.
+   */
+  public int getKillCount() {
+    int count = 0;
+    for (BattleRecord record : records.keySet()) {
+      count += records.getCounter(record);
+    }
+    return count;
+  }
+
   public boolean satisfies(BattleStatisticsRequirement requirement) {
     int count = 0;
     for (BattleRecord record : records.keySet()) {
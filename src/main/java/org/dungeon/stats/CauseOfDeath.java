@@ -28,7 +28,7 @@ import java.io.Serializable;
  */
 public class CauseOfDeath implements Serializable {
 
-  private final static CauseOfDeath UNARMED = new CauseOfDeath(TypeOfCauseOfDeath.UNARMED, new Id("UNARMED"));
+  private final static CauseOfDeath UNARMED = new CauseOfDeath(TypeOfCauseOfDeath.UNARMED, Id.valueOf("UNARMED"));
   private final TypeOfCauseOfDeath type;
   private final Id id;
 
@@ -17,11 +17,17 @@
 
 package org.dungeon.stats;
 
+import org.dungeon.game.GameData;
 import org.dungeon.game.Id;
+import org.dungeon.game.LocationDescription;
+import org.dungeon.game.LocationPreset;
 import org.dungeon.game.Point;
+import org.dungeon.game.SpatialIndex;
+import org.dungeon.map.MapRaster;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * ExplorationStatistics class that tracks the Hero's exploration progress.
@@ -29,6 +35,9 @@ import java.util.HashMap;
 public class ExplorationStatistics implements Serializable {
 
   private final HashMap<Point, ExplorationStatisticsEntry> entries;
+  private final SpatialIndex seenLocationIndex = new SpatialIndex();
+  // Not saved, as it is derived from the entries. Built when it is first needed.
+  private transient MapRaster mapRaster;
 
   public ExplorationStatistics() {
     this.entries = new HashMap<Point, ExplorationStatisticsEntry>();
@@ -45,6 +54,32 @@ public class ExplorationStatistics implements Serializable {
   public void createEntryIfNotExists(Point point, Id locationId) {
     if (!hasBeenSeen(point)) {
       entries.put(point, new ExplorationStatisticsEntry(locationId));
+      seenLocationIndex.add(locationId, point);
+      if (mapRaster != null) {
+        drawOnMapRaster(point, locationId);
+      }
+    }
+  }
+
+  /**
+   * Returns the MapRaster of the Points the Hero has seen.
+   */
+  public MapRaster getMapRaster() {
+    if (mapRaster == null) {
+      mapRaster = new MapRaster();
+      for (Map.Entry<Point, ExplorationStatisticsEntry> entry : entries.entrySet()) {
+        drawOnMapRaster(entry.getKey(), entry.getValue().getLocationId());
+      }
+    }
+    return mapRaster;
+  }
+
+  private void drawOnMapRaster(Point point, Id locationId) {
+    LocationPreset preset = GameData.getLocationPresetStore().getLocationPreset(locationId);
+    // Leave Points whose preset no longer exists unexplored.
+    if (preset != null) {
+      LocationDescription description = preset.getDescription();
+      mapRaster.set(point, description.getSymbol(), description.getColor());
     }
   }
 
@@ -78,6 +113,13 @@ public class ExplorationStatistics implements Serializable {
     return entries.containsKey(point);
   }
 
+  /**
+   * Returns the SpatialIndex of the Points the Hero has seen, indexed by the Ids of their Locations.
+   */
+  public SpatialIndex getSeenLocationIndex() {
+    return seenLocationIndex;
+  }
+
   /**
    * Returns how many Locations with the specified Id the Hero visited.
    *
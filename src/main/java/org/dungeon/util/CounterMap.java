@@ -70,6 +70,22 @@ public class CounterMap<K> implements Serializable {
     map.put(key, counter);
   }
 
+  /**
+   * Decrements the count of a given key in the CounterMap by 1.
+   *
+   * <p>Keys whose counters reach 0 are removed. If the key does not exist, nothing happens.
+   */
+  public void decrementCounter(K key) {
+    Integer counter = map.get(key);
+    if (counter != null) {
+      if (counter > 1) {
+        map.put(key, counter - 1);
+      } else {
+        map.remove(key);
+      }
+    }
+  }
+
   /**
    * Retrieves the counter mapped to a certain key. If no counter is mapped to the provided key, 0 will be returned.
    */
@@ -38,6 +38,21 @@ public final class DungeonMath {
     throw new AssertionError();
   }
 
+  /**
+   * Divides an integer by a positive integer, rounding the quotient towards negative infinity.
+   *
+   * @param dividend any integer
+   * @param divisor a positive integer
+   * @return the largest integer smaller than or equal to the exact quotient
+   */
+  public static int floorDivide(int dividend, int divisor) {
+    if (dividend >= 0) {
+      return dividend / divisor;
+    } else {
+      return -((-dividend - 1) / divisor) - 1;
+    }
+  }
+
   /**
    * Evaluates the weighted average of two values.
    *
@@ -47,7 +62,14 @@ public final class DungeonMath {
    * @return the weighted average between the two values
    */
   public static double weightedAverage(double a, double b, Percentage bContribution) {
-    return a + (b - a) * bContribution.toDouble();
+    return weightedAverage(a, b, bContribution.toDouble());
+  }
+
+  /**
+   * Calculates the weighted average between two values, where bContribution is the contribution of b, between 0 and 1.
+   */
+  public static double weightedAverage(double a, double b, double bContribution) {
+    return a + (b - a) * bContribution;
   }
 
   /**
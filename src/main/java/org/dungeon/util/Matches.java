@@ -100,13 +100,22 @@ public class Matches<T extends Selectable> {
 
   /**
    * Updates the differentNames variable after iterating over the list of matches.
+   *
+   * <p>Most queries match entities that share a single Name, so the set of names is only built if a second name is
+   * found.
    */
   private void updateDifferentNamesCount() {
-    HashSet<Name> uniqueNames = new HashSet<Name>();
-    for (T match : matches) {
-      uniqueNames.add(match.getName());
+    differentNames = matches.isEmpty() ? 0 : 1;
+    for (int i = 1; i < matches.size(); i++) {
+      if (!matches.get(i).getName().equals(matches.get(0).getName())) {
+        HashSet<Name> uniqueNames = new HashSet<Name>();
+        for (T match : matches) {
+          uniqueNames.add(match.getName());
+        }
+        differentNames = uniqueNames.size();
+        break;
+      }
     }
-    differentNames = uniqueNames.size();
     differentNamesUpToDate = true;
   }
 
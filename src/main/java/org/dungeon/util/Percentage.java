@@ -29,18 +29,21 @@ import java.util.Locale;
  */
 public class Percentage implements Comparable<Percentage>, Serializable {
 
-  private static final double ONE = 1.0;
-  private static final double ZERO = 0.0;
+  private static final double MAXIMUM = 1.0;
+  private static final double MINIMUM = 0.0;
+
+  public static final Percentage ZERO = new Percentage(MINIMUM);
+  public static final Percentage ONE = new Percentage(MAXIMUM);
 
   private final double value;
 
   public Percentage(double percentage) {
-    if (DungeonMath.fuzzyCompare(percentage, ZERO) < 0) {
-      value = ZERO;
-      DungeonLogger.warning("Tried to use " + percentage + " as a percentage. Used " + ZERO + " instead.");
-    } else if (DungeonMath.fuzzyCompare(percentage, ONE) > 0) {
-      value = ONE;
-      DungeonLogger.warning("Tried to use " + percentage + " as a percentage. Used " + ONE + " instead.");
+    if (DungeonMath.fuzzyCompare(percentage, MINIMUM) < 0) {
+      value = MINIMUM;
+      DungeonLogger.warning("Tried to use " + percentage + " as a percentage. Used " + MINIMUM + " instead.");
+    } else if (DungeonMath.fuzzyCompare(percentage, MAXIMUM) > 0) {
+      value = MAXIMUM;
+      DungeonLogger.warning("Tried to use " + percentage + " as a percentage. Used " + MAXIMUM + " instead.");
     } else {
       value = percentage;
     }
@@ -77,7 +80,7 @@ public class Percentage implements Comparable<Percentage>, Serializable {
   }
 
   private static boolean isValidPercentageDouble(double value) {
-    return DungeonMath.fuzzyCompare(value, ZERO) >= 0 && DungeonMath.fuzzyCompare(value, ONE) <= 0;
+    return DungeonMath.fuzzyCompare(value, MINIMUM) >= 0 && DungeonMath.fuzzyCompare(value, MAXIMUM) <= 0;
   }
 
   private static String trimAndDiscardLastCharacter(String string) {
@@ -135,6 +135,13 @@ public final class Utils {
     for (Entity entity : listOfEntities) {
       nameOccurrences.incrementCounter(entity.getName());
     }
+    return enumerateNames(nameOccurrences);
+  }
+
+  /**
+   * Returns a String representation of the enumeration of the Names in a CounterMap, each one quantified by its counter.
+   */
+  public static String enumerateNames(final CounterMap<Name> nameOccurrences) {
     ArrayList<String> quantifiedNames = new ArrayList<String>();
     for (Name name : nameOccurrences.keySet()) {
       quantifiedNames.add(name.getQuantifiedName(nameOccurrences.getCounter(name)));
@@ -182,15 +189,31 @@ public final class Utils {
   private static <T extends Selectable> Matches<T> findMatches(Collection<T> collection, boolean complete,
       String... tokens) {
     List<T> listOfMatches = new ArrayList<T>();
+    String[] query = toLowerCase(tokens);
     // Do not start with 0, as this would gather all Articles if the query did not match any Article.
     double maximumSimilarity = 1e-6;
+    // Entities created from the same preset share their Name, so consecutive candidates often do not need rescoring.
+    Name lastName = null;
+    double lastSimilarity = 0;
     for (T candidate : collection) {
-      String[] titleWords = split(candidate.getName().getSingular());
-      int matches = countMatches(tokens, titleWords);
-      if (!complete || matches >= tokens.length) {
-        double matchesOverTitleWords = matches / (double) titleWords.length;
-        double matchesOverSearchArgs = matches / (double) tokens.length;
-        double similarity = DungeonMath.mean(matchesOverTitleWords, matchesOverSearchArgs);
+      Name name = candidate.getName();
+      double similarity;
+      if (name == lastName) {
+        similarity = lastSimilarity;
+      } else {
+        String[] titleWords = name.getTokens();
+        int matches = countMatches(query, titleWords);
+        if (complete && matches < query.length) {
+          similarity = -1;
+        } else {
+          double matchesOverTitleWords = matches / (double) titleWords.length;
+          double matchesOverSearchArgs = matches / (double) query.length;
+          similarity = DungeonMath.mean(matchesOverTitleWords, matchesOverSearchArgs);
+        }
+        lastName = name;
+        lastSimilarity = similarity;
+      }
+      if (similarity >= 0) {
         int comparisonResult = DungeonMath.fuzzyCompare(similarity, maximumSimilarity);
         if (comparisonResult > 0) {
           maximumSimilarity = similarity;
@@ -205,14 +228,26 @@ public final class Utils {
   }
 
   /**
-   * Counts how many Strings in the entry array start with the Strings of the query array.
+   * Returns a new array with the lower case forms of the specified Strings.
+   */
+  private static String[] toLowerCase(String[] strings) {
+    String[] lowerCase = new String[strings.length];
+    for (int i = 0; i < strings.length; i++) {
+      lowerCase[i] = strings[i].toLowerCase();
+    }
+    return lowerCase;
+  }
+
+  /**
+   * Counts how many Strings in the entry array start with the Strings of the query array. Both arrays should be in
+   * lower case.
    */
   private static int countMatches(String[] query, String[] entry) {
     int matches = 0;
     int indexOfLastMatchPlusOne = 0;
     for (int i = 0; i < query.length && indexOfLastMatchPlusOne < entry.length; i++) {
       for (int j = indexOfLastMatchPlusOne; j < entry.length; j++) {
-        if (startsWithIgnoreCase(entry[j], query[i])) {
+        if (entry[j].startsWith(query[i])) {
           indexOfLastMatchPlusOne = j + 1;
           matches++;
         }
@@ -31,7 +31,7 @@ public class CorpsePresetFactoryTest {
   @Test
   public void testMakeCorpsePreset() throws Exception {
     CreaturePreset creaturePreset = new CreaturePreset();
-    creaturePreset.setId(new Id("TESTER"));
+    creaturePreset.setId(Id.valueOf("TESTER"));
     creaturePreset.setType("Tester");
     creaturePreset.setName(NameFactory.newInstance("Tester"));
     creaturePreset.setHealth(50);
@@ -39,7 +39,7 @@ public class CorpsePresetFactoryTest {
     tagSet.addTag(Creature.Tag.CORPSE);
     creaturePreset.setTagSet(tagSet);
     ItemPreset corpsePreset = CorpsePresetFactory.makeCorpsePreset(creaturePreset);
-    Assert.assertEquals(new Id("TESTER_CORPSE"), corpsePreset.getId());
+    Assert.assertEquals(Id.valueOf("TESTER_CORPSE"), corpsePreset.getId());
     Assert.assertEquals("CORPSE", corpsePreset.getType());
     Assert.assertEquals(NameFactory.newInstance("Tester Corpse"), corpsePreset.getName());
     Assert.assertTrue(corpsePreset.getIntegrity().getMaximum() > 0);
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.entity.creatures;
+
+import org.dungeon.game.Direction;
+import org.dungeon.game.DungeonStringBuilder;
+import org.dungeon.game.Game;
+import org.dungeon.game.GameData;
+import org.dungeon.game.GameState;
+import org.dungeon.game.World;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+public class HeroTest {
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    // Done by Game.main, which is not in this package.
+    Method loadGameData = GameData.class.getDeclaredMethod("loadGameData");
+    loadGameData.setAccessible(true);
+    loadGameData.invoke(null);
+  }
+
+  /**
+   * Makes a GameState the current one without writing to the window, as Game.setGameState does.
+   */
+  private static void setGameState(GameState state) throws Exception {
+    Field field = Game.class.getDeclaredField("gameState");
+    field.setAccessible(true);
+    field.set(null, state);
+  }
+
+  @After
+  public void tearDown() {
+    Game.unsetGameState();
+  }
+
+  @Test
+  public void testGetViewShouldReuseTheViewAfterTheHeroLeavesAndComesBack() throws Exception {
+    GameState state = new GameState();
+    setGameState(state);
+    Hero hero = state.getHero();
+    World world = state.getWorld();
+    DungeonStringBuilder view = hero.getView(null);
+    Assert.assertSame(view, hero.getView(null));
+    world.moveHero(Direction.NORTH);
+    DungeonStringBuilder arrivalView = hero.getView(Direction.SOUTH);
+    world.moveHero(Direction.SOUTH);
+    Assert.assertSame(view, hero.getView(null));
+    world.moveHero(Direction.NORTH);
+    Assert.assertSame(arrivalView, hero.getView(Direction.SOUTH));
+  }
+
+}
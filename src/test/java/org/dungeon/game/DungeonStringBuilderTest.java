@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.game;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.List;
+
+public class DungeonStringBuilderTest {
+
+  @Test
+  public void testAdjacentStringsOfTheSameColorShouldBeMerged() throws Exception {
+    DungeonStringBuilder builder = new DungeonStringBuilder();
+    builder.setColor(Color.RED);
+    builder.append("A");
+    builder.setColor(new Color(255, 0, 0));
+    builder.append("B");
+    builder.setColor(Color.BLUE);
+    builder.setColor(Color.RED);
+    builder.append("C");
+    builder.setColor(Color.BLUE);
+    builder.append("D");
+    List<ColoredString> list = builder.toColoredStringList();
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals("ABC", list.get(0).getString());
+    Assert.assertEquals("D", list.get(1).getString());
+  }
+
+  @Test
+  public void testAppendingAWritableShouldKeepItsColors() throws Exception {
+    DungeonStringBuilder first = new DungeonStringBuilder();
+    first.setColor(Color.RED);
+    first.append("A");
+    first.setColor(Color.BLUE);
+    first.append("B");
+    DungeonStringBuilder second = new DungeonStringBuilder();
+    Assert.assertTrue(second.isEmpty());
+    second.setColor(Color.RED);
+    second.append(first);
+    second.append("C");
+    Assert.assertFalse(second.isEmpty());
+    List<ColoredString> list = second.toColoredStringList();
+    Assert.assertEquals(2, list.size());
+    Assert.assertEquals("A", list.get(0).getString());
+    Assert.assertEquals(Color.RED, list.get(0).getColor());
+    Assert.assertEquals("BC", list.get(1).getString());
+    Assert.assertEquals(Color.BLUE, list.get(1).getColor());
+  }
+
+}
@@ -23,27 +23,36 @@ import org.junit.Test;
 public class IdTest {
 
   @Test
-  public void testConstructor() throws Exception {
+  public void testValueOf() throws Exception {
     try {
-      new Id(null);
+      Id.valueOf(null);
       Assert.fail("expected an IllegalArgumentException");
     } catch (IllegalArgumentException expected) {
     }
     try {
-      new Id("");
+      Id.valueOf("");
       Assert.fail("expected an IllegalArgumentException");
     } catch (IllegalArgumentException expected) {
     }
     try {
-      new Id(" ");
+      Id.valueOf(" ");
       Assert.fail("expected an IllegalArgumentException");
     } catch (IllegalArgumentException expected) {
     }
-    new Id("403_ACCESS_FORBIDDEN");
-    new Id("404_NOT_FOUND");
-    new Id("VALID_ID");
-    new Id("YET_ANOTHER_VALID_ID");
-    new Id("ID_WITH_NUMBER_255");
+    Id.valueOf("403_ACCESS_FORBIDDEN");
+    Id.valueOf("404_NOT_FOUND");
+    Id.valueOf("VALID_ID");
+    Id.valueOf("YET_ANOTHER_VALID_ID");
+    Id.valueOf("ID_WITH_NUMBER_255");
+  }
+
+  @Test
+  public void testValueOfShouldReturnTheSameIdForEqualStrings() throws Exception {
+    Id id = Id.valueOf("INTERNED_ID");
+    Assert.assertSame(id, Id.valueOf(new String("INTERNED_ID")));
+    Assert.assertEquals(id.getOrdinal(), Id.valueOf("INTERNED_ID").getOrdinal());
+    Assert.assertTrue(id.getOrdinal() < Id.getIdCount());
+    Assert.assertTrue(id.getOrdinal() != Id.valueOf("ANOTHER_INTERNED_ID").getOrdinal());
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.game;
+
+import org.dungeon.date.Date;
+import org.dungeon.entity.creatures.Creature;
+import org.dungeon.entity.creatures.CreatureFactory;
+import org.dungeon.entity.creatures.Hero;
+import org.dungeon.entity.items.Item;
+import org.dungeon.entity.items.ItemFactory;
+import org.dungeon.io.ChunkInput;
+import org.dungeon.io.ChunkOutput;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class LocationTest {
+
+  private static final Date CREATION_DATE = new Date(2055, 6, 2, 6, 10, 0);
+  private static final Date LATER_DATE = new Date(2055, 6, 3, 18, 30, 0);
+
+  @BeforeClass
+  public static void setUpClass() {
+    GameData.loadGameData();
+  }
+
+  private static Creature makeCreature(String id) {
+    return new Creature(CreatureFactory.getCreaturePreset(Id.valueOf(id)));
+  }
+
+  private static Item makeItem(String id, Date date) {
+    return ItemFactory.makeItem(Id.valueOf(id), date);
+  }
+
+  private static byte[] encode(Location location) {
+    ChunkOutput out = new ChunkOutput();
+    location.writeTo(out);
+    return out.toByteArray();
+  }
+
+  private static Location decode(byte[] bytes, GameState state) throws IOException {
+    ChunkInput in = new ChunkInput(bytes);
+    Location location = Location.readFrom(in, state.getWorld(), state.getHero());
+    Assert.assertTrue(in.isExhausted());
+    return location;
+  }
+
+  /**
+   * Makes the Location of the Hero hold the Hero between two Creatures, one with an equipped weapon, two stacks of
+   * apples and a watch that stopped at LATER_DATE.
+   */
+  private static Location populateHeroLocation(GameState state) {
+    Hero hero = state.getHero();
+    Location location = state.getHeroLocation();
+    location.removeCreature(hero);
+    // Locations may be created with some Items.
+    while (!location.getItemList().isEmpty()) {
+      location.removeItem(location.getItemList().get(0));
+    }
+    Creature orc = makeCreature("ORC");
+    orc.getInventory().addItem(makeItem("CLUB", CREATION_DATE));
+    Item dagger = makeItem("DAGGER", CREATION_DATE);
+    orc.getInventory().addItem(dagger);
+    orc.setWeapon(dagger);
+    location.addCreature(makeCreature("FROG"));
+    location.addCreature(hero);
+    location.addCreature(orc);
+    for (int i = 0; i < 3; i++) {
+      location.addItem(makeItem("APPLE", CREATION_DATE));
+    }
+    location.addItem(makeItem("APPLE", LATER_DATE));
+    Item watch = makeItem("POCKET_WATCH", CREATION_DATE);
+    watch.getClockComponent().setLastTime(LATER_DATE);
+    location.addItem(watch);
+    return location;
+  }
+
+  @Test
+  public void testLocationsShouldBeReadAsTheyWereWritten() throws Exception {
+    GameState state = new GameState();
+    Location location = populateHeroLocation(state);
+    byte[] bytes = encode(location);
+    Location copy = decode(bytes, state);
+    // The watch only keeps its reading if writing the copy gives the same bytes.
+    Assert.assertArrayEquals(bytes, encode(copy));
+    Assert.assertEquals(location.getId(), copy.getId());
+    List<Creature> creatures = copy.getCreatures();
+    Assert.assertEquals(3, creatures.size());
+    Assert.assertEquals(Id.valueOf("FROG"), creatures.get(0).getId());
+    Assert.assertSame(state.getHero(), creatures.get(1));
+    Assert.assertSame(copy, state.getHero().getLocation());
+    Creature orc = creatures.get(2);
+    Assert.assertEquals(Id.valueOf("ORC"), orc.getId());
+    Assert.assertEquals(Id.valueOf("DAGGER"), orc.getWeapon().getId());
+    Assert.assertSame(orc.getInventory().getItems().get(1), orc.getWeapon());
+    List<Item> items = copy.getInventory().getDistinctItems();
+    Assert.assertEquals(3, items.size());
+    Assert.assertEquals(3, copy.getInventory().getStackSize(items.get(0)));
+    Assert.assertEquals(1, copy.getInventory().getStackSize(items.get(1)));
+    Assert.assertEquals(Id.valueOf("POCKET_WATCH"), items.get(2).getId());
+    Assert.assertEquals(5, copy.getInventory().getItemCount());
+  }
+
+  @Test
+  public void testEntitiesWhosePresetsNoLongerExistShouldBeSkipped() throws Exception {
+    GameState state = new GameState();
+    Location location = state.getHeroLocation();
+    Creature frog = makeCreature("FROG");
+    Item apple = makeItem("APPLE", CREATION_DATE);
+    // A Location as a save made before the removed presets were taken out of the game would have it.
+    ChunkOutput out = new ChunkOutput();
+    out.writeId(location.getId());
+    out.writeVarInt(0); // No spawners.
+    out.writeVarInt(0); // No Hero.
+    out.writeVarInt(2); // Creatures.
+    out.writeId(Id.valueOf("REMOVED_CREATURE"));
+    out.writeVarInt(10); // Health.
+    out.writeBoolean(true); // Light source.
+    out.writeVarInt(1); // Items.
+    apple.writeTo(out);
+    out.writeVarInt(1); // Weapon.
+    frog.writeTo(out);
+    out.writeVarInt(2); // Stacks.
+    out.writeId(Id.valueOf("REMOVED_ITEM"));
+    out.writeDate(CREATION_DATE);
+    out.writeVarInt(10); // Integrity.
+    out.writeBoolean(false); // Clock reading.
+    out.writeVarInt(4); // Units.
+    apple.writeTo(out);
+    out.writeVarInt(2); // Units.
+    Location copy = decode(out.toByteArray(), state);
+    Assert.assertEquals(1, copy.getCreatures().size());
+    Assert.assertEquals(Id.valueOf("FROG"), copy.getCreatures().get(0).getId());
+    Assert.assertEquals(1, copy.getInventory().getDistinctItems().size());
+    Assert.assertEquals(Id.valueOf("APPLE"), copy.getInventory().getDistinctItems().get(0).getId());
+    Assert.assertEquals(2, copy.getInventory().getItemCount());
+  }
+
+}
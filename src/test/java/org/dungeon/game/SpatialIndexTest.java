@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.game;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SpatialIndexTest {
+
+  private static final Id BRIDGE = Id.valueOf("BRIDGE");
+  private static final Id FOREST = Id.valueOf("FOREST");
+
+  @Test
+  public void testFindNearestShouldReturnNullForUnknownIds() throws Exception {
+    SpatialIndex index = new SpatialIndex();
+    index.add(BRIDGE, new Point(0, 0));
+    Assert.assertNull(index.findNearest(FOREST, new Point(0, 0)));
+  }
+
+  @Test
+  public void testFindNearestShouldReturnTheClosestPoint() throws Exception {
+    SpatialIndex index = new SpatialIndex();
+    index.add(BRIDGE, new Point(-40, 3));
+    index.add(BRIDGE, new Point(17, -2));
+    index.add(BRIDGE, new Point(100, 100));
+    index.add(FOREST, new Point(1, 1));
+    Assert.assertEquals(new Point(17, -2), index.findNearest(BRIDGE, new Point(0, 0)));
+    Assert.assertEquals(new Point(-40, 3), index.findNearest(BRIDGE, new Point(-20, 0)));
+    Assert.assertEquals(new Point(100, 100), index.findNearest(BRIDGE, new Point(90, 95)));
+  }
+
+  @Test
+  public void testFindNearestShouldLookBeyondTheFirstChunkFound() throws Exception {
+    SpatialIndex index = new SpatialIndex();
+    // The first Point shares a chunk with the origin but the second Point is closer.
+    index.add(BRIDGE, new Point(15, 15));
+    index.add(BRIDGE, new Point(-1, 0));
+    Assert.assertEquals(new Point(-1, 0), index.findNearest(BRIDGE, new Point(1, 0)));
+  }
+
+  @Test
+  public void testAddShouldIgnoreDuplicates() throws Exception {
+    SpatialIndex index = new SpatialIndex();
+    index.add(BRIDGE, new Point(5, 5));
+    index.add(BRIDGE, new Point(5, 5));
+    Assert.assertEquals(1, index.count(BRIDGE));
+    Assert.assertEquals(0, index.count(FOREST));
+  }
+
+  @Test
+  public void testFindWithin() throws Exception {
+    SpatialIndex index = new SpatialIndex();
+    for (int x = -50; x <= 50; x += 5) {
+      for (int y = -50; y <= 50; y += 5) {
+        index.add(FOREST, new Point(x, y));
+      }
+    }
+    Point origin = new Point(3, -2);
+    List<Point> points = index.findWithin(FOREST, origin, 20);
+    int expected = 0;
+    for (int x = -50; x <= 50; x += 5) {
+      for (int y = -50; y <= 50; y += 5) {
+        if (SpatialIndex.distance(origin, new Point(x, y)) <= 20) {
+          expected++;
+          Assert.assertTrue(points.contains(new Point(x, y)));
+        }
+      }
+    }
+    Assert.assertEquals(expected, points.size());
+    Assert.assertTrue(index.findWithin(BRIDGE, origin, 20).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFindWithinShouldThrowAnExceptionOnNegativeRadius() throws Exception {
+    new SpatialIndex().findWithin(FOREST, new Point(0, 0), -1);
+  }
+
+}
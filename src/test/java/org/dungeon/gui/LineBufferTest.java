@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.gui;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.Color;
+
+public class LineBufferTest {
+
+  private static void assertLines(LineBuffer buffer, String... expected) {
+    Assert.assertEquals(expected.length, buffer.size());
+    for (int row = 0; row < expected.length; row++) {
+      LineBuffer.Line line = buffer.get(row);
+      StringBuilder builder = new StringBuilder();
+      for (int column = 0; column < line.getLength(); column++) {
+        builder.append(line.getSymbol(column));
+      }
+      Assert.assertEquals(expected[row], builder.toString());
+    }
+  }
+
+  @Test
+  public void testAppendShouldWrapAfterTheLastSpace() throws Exception {
+    LineBuffer buffer = new LineBuffer(10, 0);
+    buffer.append("Lorem ipsum dolor", Color.RED);
+    buffer.append(" sit\namet", Color.BLUE);
+    assertLines(buffer, "Lorem ", "ipsum ", "dolor sit", "amet");
+    Assert.assertEquals(Color.RED, buffer.get(2).getColor(4));
+    Assert.assertEquals(Color.BLUE, buffer.get(2).getColor(5));
+  }
+
+  @Test
+  public void testAppendShouldBreakWordsAsLongAsALine() throws Exception {
+    LineBuffer buffer = new LineBuffer(5, 0);
+    buffer.append("abcdefghijkl", Color.RED);
+    assertLines(buffer, "abcde", "fghij", "kl");
+    buffer.clear();
+    buffer.append("abcde fghij", Color.RED);
+    assertLines(buffer, "abcde", "fghij");
+  }
+
+  @Test
+  public void testAppendShouldReuseTheOldestLinesWhenFull() throws Exception {
+    LineBuffer buffer = new LineBuffer(4, 3);
+    buffer.append("a\nb\n", Color.RED);
+    buffer.markClean();
+    buffer.append("c\nd\ne f", Color.RED);
+    assertLines(buffer, "c", "d", "e f");
+    Assert.assertEquals(0, buffer.getDirtyRow());
+    Assert.assertEquals(0, buffer.getDirtyColumn());
+    Assert.assertEquals(2, buffer.getDroppedLines());
+  }
+
+  @Test
+  public void testGetTextShouldJoinLinesWithNewlines() throws Exception {
+    LineBuffer buffer = new LineBuffer(20, 0);
+    buffer.append("Lorem ipsum dolor\nsit amet", Color.RED);
+    Assert.assertEquals("ipsum", buffer.getText(0, 6, 0, 11));
+    Assert.assertEquals("sum dolor\nsit", buffer.getText(0, 8, 1, 3));
+    Assert.assertEquals("", buffer.getText(1, 3, 1, 3));
+    Assert.assertEquals("Lorem ipsum dolor\nsit amet", buffer.getText(0, 0, 1, 20));
+  }
+
+}
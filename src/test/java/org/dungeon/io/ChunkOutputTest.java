@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dungeon.io;
+
+import org.dungeon.date.Date;
+import org.dungeon.game.Id;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ChunkOutputTest {
+
+  @Test
+  public void testIntegersShouldBeReadAsTheyWereWritten() throws Exception {
+    ChunkOutput out = new ChunkOutput();
+    int[] unsigned = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE};
+    int[] signed = {0, -1, 1, -64, 64, Integer.MIN_VALUE, Integer.MAX_VALUE};
+    long[] signedLongs = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+    for (int value : unsigned) {
+      out.writeVarInt(value);
+    }
+    for (int value : signed) {
+      out.writeSignedVarInt(value);
+    }
+    for (long value : signedLongs) {
+      out.writeSignedVarLong(value);
+    }
+    out.writeBoolean(true);
+    out.writeBoolean(false);
+    ChunkInput in = new ChunkInput(out.toByteArray());
+    for (int value : unsigned) {
+      Assert.assertEquals(value, in.readVarInt());
+    }
+    for (int value : signed) {
+      Assert.assertEquals(value, in.readSignedVarInt());
+    }
+    for (long value : signedLongs) {
+      Assert.assertEquals(value, in.readSignedVarLong());
+    }
+    Assert.assertTrue(in.readBoolean());
+    Assert.assertFalse(in.readBoolean());
+    Assert.assertTrue(in.isExhausted());
+  }
+
+  @Test
+  public void testSmallIntegersShouldTakeOneByte() throws Exception {
+    ChunkOutput out = new ChunkOutput();
+    out.writeVarInt(127);
+    out.writeSignedVarInt(-64);
+    Assert.assertEquals(2, out.toByteArray().length);
+  }
+
+  @Test
+  public void testRepeatedIdsAndDatesShouldBeWrittenCompactly() throws Exception {
+    Id id = Id.valueOf("CHUNK_OUTPUT_TEST_ID");
+    Date date = new Date(2055, 6, 2, 6, 10, 0);
+    ChunkOutput out = new ChunkOutput();
+    out.writeId(id);
+    out.writeDate(date);
+    int firstSize = out.toByteArray().length;
+    out.writeId(id);
+    out.writeDate(date);
+    out.writeString("\u00dcn\u00efcode");
+    Assert.assertEquals(firstSize + 2, out.toByteArray().length - "\u00dcn\u00efcode".getBytes("UTF-8").length - 1);
+    ChunkInput in = new ChunkInput(out.toByteArray());
+    Assert.assertSame(id, in.readId());
+    Date first = in.readDate();
+    Assert.assertEquals(date.getTime(), first.getTime());
+    Assert.assertSame(id, in.readId());
+    Assert.assertSame(first, in.readDate());
+    Assert.assertEquals("\u00dcn\u00efcode", in.readString());
+    Assert.assertTrue(in.isExhausted());
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidIdsShouldThrowAnException() throws Exception {
+    ChunkOutput out = new ChunkOutput();
+    out.writeVarInt(0);
+    out.writeString("not an id");
+    new ChunkInput(out.toByteArray()).readId();
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadingPastTheEndShouldThrowAnException() throws Exception {
+    ChunkOutput out = new ChunkOutput();
+    out.writeVarInt(300);
+    byte[] bytes = out.toByteArray();
+    new ChunkInput(new byte[]{bytes[0]}).readVarInt();
+  }
+
+}
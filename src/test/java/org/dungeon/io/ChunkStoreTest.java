@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.io;
+
+import org.dungeon.game.Point;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ChunkStoreTest {
+
+  private static final SaveMetadata METADATA = new SaveMetadata(0, 0, 0, 0, 0);
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Writes a base file with a chunk for each payload, which is written as a string.
+   */
+  private static void writeBaseFile(File file, String... chunks) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int i = 0; i < chunks.length; i++) {
+      SaveFile.writeChunk(out, new Point(i, 0), chunks[i].getBytes("UTF-8"));
+    }
+    SaveFile.writeRecord(out, SaveFile.CORE, new byte[]{0});
+    out.writeByte(SaveFile.COMMIT);
+    out.close();
+    new SaveFile.PendingSave(file, false, bytes.toByteArray(), METADATA).write();
+  }
+
+  private static String hash(String chunk) throws IOException {
+    return ChunkStore.hash(chunk.getBytes("UTF-8"));
+  }
+
+  /**
+   * Returns the hashes of the chunks in the store of the folder.
+   */
+  private static Set<String> getStoredChunks(File savesFolder) throws IOException {
+    Set<String> chunks = new HashSet<String>();
+    String[] names = new File(savesFolder, "chunks").list();
+    if (names != null) {
+      chunks.addAll(Arrays.asList(names));
+    }
+    chunks.remove("references");
+    return chunks;
+  }
+
+  private static Set<String> hashes(String... chunks) throws IOException {
+    Set<String> hashes = new HashSet<String>();
+    for (String chunk : chunks) {
+      hashes.add(hash(chunk));
+    }
+    return hashes;
+  }
+
+  @Test
+  public void testSavesShouldShareTheirChunks() throws Exception {
+    File savesFolder = folder.newFolder();
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "shared", "only in a");
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "shared", "only in b");
+    Assert.assertEquals(hashes("shared", "only in a", "only in b"), getStoredChunks(savesFolder));
+    File b = new File(savesFolder, "b.dungeon");
+    Assert.assertEquals(hashes("shared", "only in b"), new HashSet<String>(SaveFile.readChunkHashes(b)));
+  }
+
+  @Test
+  public void testReplacingASaveShouldOnlyDeleteTheChunksNoOtherSaveHas() throws Exception {
+    File savesFolder = folder.newFolder();
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "shared", "only in a");
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "shared", "only in b");
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "replaced", "only in a");
+    Assert.assertEquals(hashes("shared", "replaced", "only in a", "only in b"), getStoredChunks(savesFolder));
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "replaced", "only in a");
+    Assert.assertEquals(hashes("replaced", "only in a"), getStoredChunks(savesFolder));
+  }
+
+  @Test
+  public void testSavesDeletedByHandShouldNoLongerKeepTheirChunks() throws Exception {
+    File savesFolder = folder.newFolder();
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "shared", "only in a");
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "shared", "only in b");
+    Assert.assertTrue(new File(savesFolder, "b.dungeon").delete());
+    // The generations in the table no longer match the base files, so the references are rebuilt.
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "shared", "only in a");
+    Assert.assertEquals(hashes("shared", "only in a"), getStoredChunks(savesFolder));
+  }
+
+  @Test
+  public void testMissingTablesShouldBeRebuiltFromTheBaseFiles() throws Exception {
+    File savesFolder = folder.newFolder();
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "shared", "only in a");
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "shared", "only in b");
+    File table = new File(new File(savesFolder, "chunks"), "references");
+    Assert.assertTrue(table.delete());
+    ChunkStore store = new ChunkStore(savesFolder);
+    // A chunk written by a save that was interrupted before it replaced its base file.
+    store.write(hash("orphan"), 0, "orphan".getBytes("UTF-8"));
+    writeBaseFile(new File(savesFolder, "c.dungeon"), "only in c");
+    Assert.assertTrue(table.isFile());
+    Assert.assertEquals(hashes("shared", "only in a", "only in b", "only in c"), getStoredChunks(savesFolder));
+    // The rebuilt counts must account for both saves that have the shared chunk.
+    writeBaseFile(new File(savesFolder, "a.dungeon"), "only in c");
+    Assert.assertEquals(hashes("shared", "only in b", "only in c"), getStoredChunks(savesFolder));
+    writeBaseFile(new File(savesFolder, "b.dungeon"), "only in c");
+    Assert.assertEquals(hashes("only in c"), getStoredChunks(savesFolder));
+  }
+
+}
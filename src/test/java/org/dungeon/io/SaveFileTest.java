@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.io;
+
+import org.dungeon.game.Point;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SaveFileTest {
+
+  private static final Point NEAR = new Point(0, 0);
+  private static final Point FAR = new Point(5, 5);
+  // The magic number, the version, the generation and the codec.
+  private static final int LOG_HEADER_SIZE = 4 + 4 + 8 + 1;
+  private static final SaveMetadata METADATA = new SaveMetadata(0, 0, 0, 0, 0);
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Returns the records of a save with the specified payloads, which are written as strings.
+   *
+   * @param far the payload of the far chunk or null if the save does not have it
+   */
+  private static byte[] makeRecords(String core, String near, @Nullable String far, boolean commit)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    SaveFile.writeChunk(out, NEAR, near.getBytes("UTF-8"));
+    if (far != null) {
+      SaveFile.writeChunk(out, FAR, far.getBytes("UTF-8"));
+    }
+    SaveFile.writeRecord(out, SaveFile.CORE, core.getBytes("UTF-8"));
+    if (commit) {
+      out.writeByte(SaveFile.COMMIT);
+    }
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  private static void writeBaseFile(File file, String core, String near, String far) throws IOException {
+    new SaveFile.PendingSave(file, false, makeRecords(core, near, far, true), METADATA).write();
+  }
+
+  private static void appendToLog(File file, String core, String near) throws IOException {
+    new SaveFile.PendingSave(file, true, makeRecords(core, near, null, true), METADATA).write();
+  }
+
+  private static String toString(SaveFile.Record record) throws IOException {
+    return new String(record.getPayload(), "UTF-8");
+  }
+
+  private static void assertSnapshot(File file, String core, String near, String far, boolean cleanLog)
+      throws IOException {
+    SaveFile.Snapshot snapshot = SaveFile.readSnapshot(file);
+    Assert.assertEquals(core, toString(snapshot.getCore()));
+    Assert.assertEquals(near, toString(snapshot.getChunk(NEAR)));
+    Assert.assertEquals(far, toString(snapshot.getChunk(FAR)));
+    Assert.assertEquals(cleanLog, snapshot.isCleanLog());
+  }
+
+  private static File getLogFile(File file) {
+    return new File(file.getPath() + ".log");
+  }
+
+  private static byte[] readFile(File file) throws IOException {
+    byte[] bytes = new byte[(int) file.length()];
+    FileInputStream in = new FileInputStream(file);
+    try {
+      int read = 0;
+      while (read < bytes.length) {
+        read += in.read(bytes, read, bytes.length - read);
+      }
+    } finally {
+      in.close();
+    }
+    return bytes;
+  }
+
+  private static void writeFile(File file, byte[] bytes) throws IOException {
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+  }
+
+  private static String makeRandomString(Random random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+
+  private static long getStoredLength(File file, String chunk) throws IOException {
+    File chunksFolder = new File(file.getParentFile(), "chunks");
+    return new File(chunksFolder, ChunkStore.hash(chunk.getBytes("UTF-8"))).length();
+  }
+
+  private File newSaveFile() throws IOException {
+    return new File(folder.newFolder(), "test.dungeon");
+  }
+
+  @Test
+  public void testSavesInTheLogShouldReplaceTheRecordsOfTheBaseFile() throws Exception {
+    File file = newSaveFile();
+    writeBaseFile(file, "core 0", "near 0", "far 0");
+    assertSnapshot(file, "core 0", "near 0", "far 0", true);
+    appendToLog(file, "core 1", "near 1");
+    appendToLog(file, "core 2", "near 2");
+    assertSnapshot(file, "core 2", "near 2", "far 0", true);
+  }
+
+  @Test
+  public void testSavesWithoutACommitRecordShouldBeIgnored() throws Exception {
+    File file = newSaveFile();
+    writeBaseFile(file, "core 0", "near 0", "far 0");
+    appendToLog(file, "core 1", "near 1");
+    new SaveFile.PendingSave(file, true, makeRecords("core 2", "near 2", "far 2", false), METADATA).write();
+    assertSnapshot(file, "core 1", "near 1", "far 0", false);
+  }
+
+  /**
+   * Writes a base file and two saves to its log.
+   *
+   * @return the length of the log after the first save
+   */
+  private static int writeTwoSaves(File file) throws IOException {
+    writeBaseFile(file, "core 0", "near 0", "far 0");
+    appendToLog(file, "core 1", "near 1");
+    int firstSaveEnd = (int) getLogFile(file).length();
+    appendToLog(file, "core 2", "near 2");
+    return firstSaveEnd;
+  }
+
+  @Test
+  public void testTruncatedLogsShouldLoadTheLastCommittedSave() throws Exception {
+    File original = newSaveFile();
+    writeTwoSaves(original);
+    int logLength = (int) getLogFile(original).length();
+    for (int length = 0; length <= logLength; length++) {
+      File file = newSaveFile();
+      int firstSaveEnd = writeTwoSaves(file);
+      byte[] log = readFile(getLogFile(file));
+      Assert.assertEquals(logLength, log.length);
+      // Saves are written the same way every time, only the generation in the header of the log differs.
+      writeFile(getLogFile(file), Arrays.copyOf(log, length));
+      if (length == log.length) {
+        assertSnapshot(file, "core 2", "near 2", "far 0", true);
+      } else if (length >= firstSaveEnd) {
+        assertSnapshot(file, "core 1", "near 1", "far 0", length == firstSaveEnd);
+      } else {
+        // A log with just its header has no incomplete saves.
+        assertSnapshot(file, "core 0", "near 0", "far 0", length == LOG_HEADER_SIZE);
+      }
+      // The next save must be readable whether it is appended to the log or replaces the base file.
+      if (SaveFile.readSnapshot(file).isCleanLog()) {
+        appendToLog(file, "core 3", "near 3");
+        assertSnapshot(file, "core 3", "near 3", "far 0", true);
+      } else {
+        writeBaseFile(file, "core 3", "near 3", "far 3");
+        assertSnapshot(file, "core 3", "near 3", "far 3", true);
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptedLastSavesShouldBeIgnored() throws Exception {
+    File original = newSaveFile();
+    // The modification time and the operating system in the header of a GZIP member are not checked.
+    int secondSaveStart = writeTwoSaves(original) + 10;
+    int logLength = (int) getLogFile(original).length();
+    for (int i = secondSaveStart; i < logLength; i++) {
+      File file = newSaveFile();
+      writeTwoSaves(file);
+      byte[] log = readFile(getLogFile(file));
+      log[i] ^= 0x55;
+      writeFile(getLogFile(file), log);
+      assertSnapshot(file, "core 1", "near 1", "far 0", false);
+    }
+  }
+
+  @Test
+  public void testLogsOfAnotherGenerationShouldBeIgnored() throws Exception {
+    File file = newSaveFile();
+    writeBaseFile(file, "core 0", "near 0", "far 0");
+    appendToLog(file, "core 1", "near 1");
+    byte[] log = readFile(getLogFile(file));
+    writeBaseFile(file, "core 2", "near 2", "far 2");
+    Assert.assertFalse(getLogFile(file).exists());
+    writeFile(getLogFile(file), log);
+    assertSnapshot(file, "core 2", "near 2", "far 2", false);
+  }
+
+  @Test
+  public void testFilesWhoseLastWriteFailedShouldBeRewritten() throws Exception {
+    File file = newSaveFile();
+    writeBaseFile(file, "core 0", "near 0", "far 0");
+    Assert.assertTrue(SaveFile.canAppendTo(file));
+    File log = getLogFile(file);
+    Assert.assertTrue(log.mkdir());
+    try {
+      appendToLog(file, "core 1", "near 1");
+      Assert.fail("appended to a directory.");
+    } catch (IOException expected) {
+      Assert.assertTrue(log.delete());
+    }
+    Assert.assertFalse(SaveFile.canAppendTo(file));
+    try {
+      appendToLog(file, "core 2", "near 2");
+      Assert.fail("appended to the log of a stale file.");
+    } catch (IOException expected) {
+      Assert.assertFalse(log.exists());
+    }
+    writeBaseFile(file, "core 3", "near 3", "far 3");
+    Assert.assertTrue(SaveFile.canAppendTo(file));
+    appendToLog(file, "core 4", "near 4");
+    assertSnapshot(file, "core 4", "near 4", "far 3", true);
+  }
+
+  @Test
+  public void testLogsShouldBeComparedWithTheBaseFileAndItsStoredChunks() throws Exception {
+    File file = newSaveFile();
+    Random random = new Random(0);
+    String far = makeRandomString(random, 4096);
+    writeBaseFile(file, "core 0", "near 0", far);
+    long saveLength = file.length() + getStoredLength(file, "near 0") + getStoredLength(file, far);
+    appendToLog(file, "core 1", makeRandomString(random, 512));
+    // The base file only has the hashes of its chunks, so the log is already larger than it.
+    Assert.assertTrue(getLogFile(file).length() > file.length());
+    int saves = 1;
+    while (getLogFile(file).length() < saveLength) {
+      Assert.assertTrue(SaveFile.canAppendTo(file));
+      saves++;
+      appendToLog(file, "core " + saves, makeRandomString(random, 512));
+    }
+    Assert.assertFalse(SaveFile.canAppendTo(file));
+  }
+
+}
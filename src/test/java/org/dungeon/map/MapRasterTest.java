@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2014 Bernardo Sulzbach
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.dungeon.map;
+
+import org.dungeon.game.Point;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.Color;
+
+public class MapRasterTest {
+
+  @Test
+  public void testCopyShouldReturnTheSetPointsAcrossTiles() throws Exception {
+    MapRaster raster = new MapRaster();
+    raster.set(new Point(-1, 0), 'A', Color.RED);
+    raster.set(new Point(0, 0), 'B', Color.BLUE);
+    raster.set(new Point(31, -33), 'C', Color.GREEN);
+    raster.set(new Point(32, -33), 'D', Color.GREEN);
+    int left = -40;
+    int top = 10;
+    char[][] symbols = new char[50][80];
+    Color[][] colors = new Color[50][80];
+    raster.copy(left, top, symbols, colors);
+    for (int row = 0; row < symbols.length; row++) {
+      for (int column = 0; column < symbols[row].length; column++) {
+        Point point = new Point(left + column, top - row);
+        char symbol = symbols[row][column];
+        if (point.equals(new Point(-1, 0))) {
+          Assert.assertEquals('A', symbol);
+          Assert.assertEquals(Color.RED, colors[row][column]);
+        } else if (point.equals(new Point(0, 0))) {
+          Assert.assertEquals('B', symbol);
+          Assert.assertEquals(Color.BLUE, colors[row][column]);
+        } else if (point.equals(new Point(31, -33))) {
+          Assert.assertEquals('C', symbol);
+        } else if (point.equals(new Point(32, -33))) {
+          Assert.assertEquals('D', symbol);
+        } else {
+          Assert.assertEquals(MapRaster.UNEXPLORED_SYMBOL, symbol);
+          Assert.assertEquals(MapRaster.UNEXPLORED_COLOR, colors[row][column]);
+        }
+      }
+    }
+  }
+
+}